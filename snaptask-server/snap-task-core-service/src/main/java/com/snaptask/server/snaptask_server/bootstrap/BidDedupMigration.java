@@ -0,0 +1,90 @@
+package com.snaptask.server.snaptask_server.bootstrap;
+
+import com.snaptask.server.snaptask_server.enums.BidStatus;
+import com.snaptask.server.snaptask_server.modals.Bid;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.repository.bid.BidRepository;
+import com.snaptask.server.snaptask_server.repository.bid.CustomBidRepository;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Removes duplicate bids (same seeker, same task) placed before bids were unique, then creates the unique
+ * bid_task_seeker_uidx that makeBid relies on; creating it with duplicates present would fail.
+ * Per group the bid the task is assigned to is kept, else an ACCEPTED one, else the earliest; the others are deleted
+ * and taken off the task's bid_ids and bids_count.
+ * Idempotent: once the index exists no duplicates can be written, and ensuring it again is a no-op.
+ * A failed run is retried in-process every snaptask.bid-dedup.retry-delay-ms; until one succeeds makeBid checks for
+ * an existing bid itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class BidDedupMigration implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(BidDedupMigration.class);
+
+    private final BidRepository bidRepository;
+    private final CustomBidRepository customBidRepository;
+    private final CustomTaskRepository customTaskRepository;
+    private volatile boolean started;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        started = true;
+        migrate();
+    }
+
+    @Scheduled(
+            initialDelayString = "${snaptask.bid-dedup.retry-delay-ms:60000}",
+            fixedDelayString = "${snaptask.bid-dedup.retry-delay-ms:60000}"
+    )
+    public void retry() {
+        if (started && !customBidRepository.hasTaskSeekerUniqueIndex()) {
+            migrate();
+        }
+    }
+
+    private void migrate() {
+        try {
+            long removed = 0;
+            for (List<Bid> group : customBidRepository.findDuplicateBids()) {
+                String taskId = group.get(0).getTaskId();
+                Task task = customTaskRepository.findPosterTaskFields(taskId);
+                Bid keep = group.stream()
+                        .min(keepOrder(task != null ? task.getAssignedBidId() : null))
+                        .orElseThrow();
+
+                for (Bid bid : group) {
+                    if (!bid.getId().equals(keep.getId())) {
+                        bidRepository.deleteById(bid.getId());
+                        customTaskRepository.detachBid(taskId, bid.getId());
+                        removed++;
+                    }
+                }
+            }
+            if (removed > 0) {
+                log.info("Removed {} duplicate bids", removed);
+            }
+            customBidRepository.ensureTaskSeekerUniqueIndex();
+        } catch (Exception e) {
+            log.error("Bid dedup migration failed, bid_task_seeker_uidx is missing until a retry succeeds: {}", e.getMessage());
+        }
+    }
+
+    private static Comparator<Bid> keepOrder(String assignedBidId) {
+        return Comparator.<Bid, Boolean>comparing(bid -> !bid.getId().equals(assignedBidId))
+                .thenComparing(bid -> bid.getBidStatus() != BidStatus.ACCEPTED)
+                .thenComparing(Bid::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(Bid::getId);
+    }
+}
@@ -0,0 +1,45 @@
+package com.snaptask.server.snaptask_server.bootstrap;
+
+import com.snaptask.server.snaptask_server.repository.device.CustomDeviceRepository;
+import com.snaptask.server.snaptask_server.repository.user.CustomUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves push tokens still stored on the user document (User.fcmToken) into the devices collection.
+ * Idempotent: upserts are keyed by token, and once the legacy field is unset there is nothing left to copy.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceTokenMigration implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceTokenMigration.class);
+
+    private final CustomUserRepository customUserRepository;
+    private final CustomDeviceRepository customDeviceRepository;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        try {
+            AtomicLong migrated = new AtomicLong();
+            customUserRepository.forEachLegacyPushToken((userId, token) -> {
+                if (token != null && !token.isBlank()) {
+                    customDeviceRepository.upsert(userId, token);
+                    migrated.incrementAndGet();
+                }
+            });
+            if (migrated.get() > 0) {
+                long cleared = customUserRepository.unsetLegacyPushTokens();
+                log.info("Migrated {} legacy push tokens to devices, cleared {} users", migrated.get(), cleared);
+            }
+        } catch (Exception e) {
+            log.warn("Legacy push token migration failed, will retry on next start: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.snaptask.server.snaptask_server.bootstrap;
+
+import com.snaptask.server.snaptask_server.repository.notification.CustomNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves recipients still stored as a user_id array on notifications into per-user notification_inbox entries,
+ * then recounts the unread counters of everyone touched.
+ * Idempotent: each notification's entries are replaced rather than appended, the array is unset once moved,
+ * and counters are recomputed from the inbox instead of incremented.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationInboxMigration implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationInboxMigration.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final CustomNotificationRepository customNotificationRepository;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        try {
+            AtomicLong notifications = new AtomicLong();
+            AtomicLong entries = new AtomicLong();
+            Set<String> touchedUsers = new HashSet<>();
+            customNotificationRepository.forEachLegacyBroadcast(legacy -> {
+                customNotificationRepository.moveLegacyRecipientsToInbox(legacy, BATCH_SIZE);
+                notifications.incrementAndGet();
+                entries.addAndGet(legacy.receiverIds().size());
+                touchedUsers.addAll(legacy.receiverIds());
+                if (touchedUsers.size() >= BATCH_SIZE) {
+                    customNotificationRepository.recountUnread(touchedUsers);
+                    touchedUsers.clear();
+                }
+            });
+            customNotificationRepository.recountUnread(touchedUsers);
+            if (notifications.get() > 0) {
+                log.info("Migrated {} legacy notifications into {} inbox entries", notifications.get(), entries.get());
+            }
+        } catch (Exception e) {
+            log.warn("Notification inbox migration failed, will retry on next start: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.snaptask.server.snaptask_server.bootstrap;
+
+import com.snaptask.server.snaptask_server.modals.Notification;
+import com.snaptask.server.snaptask_server.modals.Task;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drops indexes whose definitions were replaced in the entity annotations; index creation only ever adds,
+ * so without this the old ones stay behind and keep costing on every write.
+ * An obsolete index is only dropped once its replacement exists, so queries never lose their index in between.
+ * Idempotent: once dropped there is nothing left to do.
+ */
+@Component
+@RequiredArgsConstructor
+public class ObsoleteIndexCleanup implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(ObsoleteIndexCleanup.class);
+
+    private static final List<ObsoleteIndex> OBSOLETE_INDEXES = List.of(
+            // seeker feed index without status
+            new ObsoleteIndex(Task.class, "open_tasks_by_category_idx", "open_tasks_by_category_status_idx"),
+            // unnamed {poster_id, status} index, extended with posted_on/_id for the poster dashboard pages
+            new ObsoleteIndex(Task.class, "poster_id_1_status_1", "poster_tasks_by_status_idx"),
+            // exact-title index; keyword search uses the text index and nothing queries title alone
+            new ObsoleteIndex(Task.class, "title_1", null),
+            // recipient array and shared status moved to notification_inbox
+            new ObsoleteIndex(Notification.class, "notif_query_idx", null),
+            new ObsoleteIndex(Notification.class, "user_id_idx", null)
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        for (ObsoleteIndex index : OBSOLETE_INDEXES) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(index.entity());
+                Set<String> existing = indexOps.getIndexInfo().stream()
+                        .map(IndexInfo::getName)
+                        .collect(Collectors.toSet());
+
+                if (!existing.contains(index.name())) {
+                    continue;
+                }
+                if (index.replacedBy() != null && !existing.contains(index.replacedBy())) {
+                    log.info("Keeping obsolete index {} until {} exists", index.name(), index.replacedBy());
+                    continue;
+                }
+                indexOps.dropIndex(index.name());
+                log.info("Dropped obsolete index {} on {}", index.name(), mongoTemplate.getCollectionName(index.entity()));
+            } catch (Exception e) {
+                log.warn("Could not drop obsolete index {}, will retry on next start: {}", index.name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param replacedBy index that took over its queries, or null if nothing needs it anymore
+     */
+    private record ObsoleteIndex(Class<?> entity, String name, String replacedBy) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.snaptask.server.snaptask_server.bootstrap;
+
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
+import com.snaptask.server.snaptask_server.repository.user.CustomUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives ONSITE tasks created before tasks carried a location their poster's saved location, the same default
+ * createTask uses, so they show up in the nearby feed. Tasks whose poster has no saved location keep none.
+ * Idempotent: only tasks still without a location are updated.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskLocationBackfill implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskLocationBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final CustomTaskRepository customTaskRepository;
+    private final CustomUserRepository customUserRepository;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        try {
+            List<String> posterIds = customTaskRepository.findPosterIdsOfOnsiteTasksWithoutLocation();
+            long backfilled = 0;
+            int withoutLocation = 0;
+            for (int from = 0; from < posterIds.size(); from += BATCH_SIZE) {
+                List<String> batch = posterIds.subList(from, Math.min(from + BATCH_SIZE, posterIds.size()));
+                Map<String, GeoJsonPoint> locations = customUserRepository.findGeoLocations(batch);
+                for (String posterId : batch) {
+                    GeoJsonPoint location = locations.get(posterId);
+                    if (location == null) {
+                        withoutLocation++;
+                        continue;
+                    }
+                    backfilled += customTaskRepository.setMissingOnsiteLocation(posterId, location);
+                }
+            }
+            if (!posterIds.isEmpty()) {
+                log.info("Backfilled the location of {} ONSITE tasks; {} posters have no saved location", backfilled, withoutLocation);
+            }
+        } catch (Exception e) {
+            log.warn("Task location backfill failed, will retry on next start: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.snaptask.server.snaptask_server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * Bulkheads for background work: one bounded pool per workload, so a large task broadcast cannot queue
+ * ahead of an OTP email and a slow mail provider cannot hold up pushes. Pushes to a single user go through the
+ * outbox instead (see OutboxDispatcher).
+ *
+ * Every pool reports pool size, active, queued and completed counts, execution and queue-wait time
+ * (snaptask.executor*, tagged by name) and rejections (snaptask.executor.rejected).
+ * In virtual-thread mode the pools keep their bounds but run their tasks on virtual threads.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfiguration {
+
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String FANOUT_EXECUTOR = "fanoutExecutor";
+    public static final String PUSH_RETRY_EXECUTOR = "pushRetryExecutor";
+    public static final String PUSH_RECEIPT_EXECUTOR = "pushReceiptExecutor";
+    public static final String OUTBOX_EXECUTOR = "outboxExecutor";
+
+    private static final String METRIC_PREFIX = "snaptask";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    public AsyncConfiguration(
+            MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Verification, OTP and password emails. Overflow runs on the caller so no email is dropped.
+     */
+    @Bean(EMAIL_EXECUTOR)
+    ExecutorService emailExecutor(
+            @Value("${snaptask.executors.email.core-size:2}") int coreSize,
+            @Value("${snaptask.executors.email.max-size:4}") int maxSize,
+            @Value("${snaptask.executors.email.queue-capacity:500}") int queueCapacity
+    ) {
+        return boundedExecutor("email", coreSize, maxSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Push batches of the new-task broadcast. Overflow runs on the resolver thread, which slows resolution
+     * down instead of dropping seekers.
+     */
+    @Bean(FANOUT_EXECUTOR)
+    ExecutorService fanoutExecutor(
+            @Value("${snaptask.fanout.dispatch-concurrency:4}") int concurrency,
+            @Value("${snaptask.fanout.dispatch-queue-capacity:100}") int queueCapacity
+    ) {
+        return boundedExecutor("fanout", concurrency, concurrency, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Re-attempts of failed push sends, handed over by the retry timer so the timer thread only keeps time.
+     * Overflow is rejected rather than run on the timer; the send then fails with its last error.
+     */
+    @Bean(PUSH_RETRY_EXECUTOR)
+    ExecutorService pushRetryExecutor(
+            @Value("${snaptask.push.retry.concurrency:2}") int concurrency,
+            @Value("${snaptask.push.retry.queue-capacity:1000}") int queueCapacity
+    ) {
+        return boundedExecutor("push-retry", concurrency, concurrency, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Mongo writes for push tickets and dead tokens, taken off the HTTP client's completion threads.
+     * Overflow is rejected rather than run on those threads; the tickets are then not tracked.
+     */
+    @Bean(PUSH_RECEIPT_EXECUTOR)
+    ExecutorService pushReceiptExecutor(
+            @Value("${snaptask.push.receipts.write-concurrency:2}") int concurrency,
+            @Value("${snaptask.push.receipts.write-queue-capacity:1000}") int queueCapacity
+    ) {
+        return boundedExecutor("push-receipt", concurrency, concurrency, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Outbox drain runs, handed over by the scheduled trigger so the shared scheduler thread never waits on a batch.
+     * One run at a time; the dispatcher skips a trigger while a run is in progress, so the queue stays empty.
+     */
+    @Bean(OUTBOX_EXECUTOR)
+    ExecutorService outboxExecutor() {
+        return boundedExecutor("outbox", 1, 1, 1, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private ExecutorService boundedExecutor(String name, int coreSize, int maxSize, int queueCapacity, RejectedExecutionHandler policy) {
+        Counter rejected = Counter.builder(METRIC_PREFIX + ".executor.rejected")
+                .description("Tasks the pool's queue had no room for")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = Thread.ofVirtual().name(name + "-", 1).factory();
+        } else {
+            CustomizableThreadFactory platformFactory = new CustomizableThreadFactory(name + "-");
+            platformFactory.setDaemon(true);
+            threadFactory = platformFactory;
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                coreSize,
+                Math.max(coreSize, maxSize),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                (task, pool) -> {
+                    rejected.increment();
+                    log.debug("{} executor saturated ({} queued), applying {}", name, pool.getQueue().size(), policy.getClass().getSimpleName());
+                    policy.rejectedExecution(task, pool);
+                }
+        );
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, name, METRIC_PREFIX);
+    }
+}
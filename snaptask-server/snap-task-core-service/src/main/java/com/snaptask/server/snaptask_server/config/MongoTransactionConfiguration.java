@@ -0,0 +1,34 @@
+package com.snaptask.server.snaptask_server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mongo multi-document transactions for writes that must land together, such as a domain change and its outbox message.
+ *
+ * Transactions need a replica set, so they are opt-in (snaptask.mongo.transactions-enabled). When off, the same
+ * callbacks simply run without one. The transaction manager is deliberately not a bean, so the existing
+ * {@code @Transactional} annotations keep their current (no-op) behaviour and only explicit callers opt in.
+ */
+@Slf4j
+@Configuration
+public class MongoTransactionConfiguration {
+
+    @Bean
+    TransactionOperations mongoTransactions(
+            MongoDatabaseFactory mongoDatabaseFactory,
+            @Value("${snaptask.mongo.transactions-enabled:false}") boolean enabled
+    ) {
+        if (!enabled) {
+            log.info("Mongo transactions disabled, outbox messages are written right after their domain change");
+            return TransactionOperations.withoutTransaction();
+        }
+        return new TransactionTemplate(new MongoTransactionManager(mongoDatabaseFactory));
+    }
+}
@@ -0,0 +1,147 @@
+package com.snaptask.server.snaptask_server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the virtual-thread scheduler when the service runs in virtual-thread mode.
+ *
+ * The mode itself is Spring Boot's switch: with spring.threads.virtual.enabled=true Tomcat handles requests,
+ * and @Async and @Scheduled work runs, on virtual threads. This component then streams JFR events in-process:
+ * pinned virtual threads (a carrier blocked for the whole wait, e.g. I/O inside synchronized or a native frame)
+ * are timed and logged with their top frames, and failed submits to the scheduler are counted.
+ *
+ * Java 21 has no scheduler MXBean, so the share of carrier time lost to pinning is derived as the pinned time per
+ * second divided by the number of carriers (snaptask.virtual_threads.carriers.pinned_ratio, averaged between
+ * scrapes). Only pins above the threshold are recorded, so it is a lower bound.
+ * Live virtual-thread counting is optional because start/end events are high volume.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadMonitor {
+
+    private static final int LOGGED_FRAMES = 5;
+
+    private final Duration pinnedThreshold;
+    private final boolean trackLifecycle;
+
+    private final Timer pinned;
+    private final Counter submitFailed;
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+
+    private long lastSampleNanos = System.nanoTime();
+    private long lastPinnedNanos;
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${snaptask.virtual-threads.pinned-threshold-ms:20}") long pinnedThresholdMs,
+            @Value("${snaptask.virtual-threads.track-lifecycle:false}") boolean trackLifecycle
+    ) {
+        this.pinnedThreshold = Duration.ofMillis(pinnedThresholdMs);
+        this.trackLifecycle = trackLifecycle;
+
+        this.pinned = Timer.builder("snaptask.virtual_threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("snaptask.virtual_threads.submit_failed")
+                .description("Virtual threads the scheduler could not start or unpark")
+                .register(meterRegistry);
+        Gauge.builder("snaptask.virtual_threads.carriers", VirtualThreadMonitor::carrierParallelism)
+                .description("Carrier threads available to the virtual-thread scheduler")
+                .register(meterRegistry);
+        Gauge.builder("snaptask.virtual_threads.carriers.pinned_ratio", this, VirtualThreadMonitor::pinnedRatio)
+                .description("Share of carrier time spent pinned since the last sample (pins above the threshold only)")
+                .register(meterRegistry);
+        if (trackLifecycle) {
+            Gauge.builder("snaptask.virtual_threads.live", live, AtomicLong::get)
+                    .description("Virtual threads started and not yet finished")
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        recording.enable("jdk.VirtualThreadSubmitFailed").withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recording.onEvent("jdk.VirtualThreadSubmitFailed", event -> submitFailed.increment());
+
+        if (trackLifecycle) {
+            recording.enable("jdk.VirtualThreadStart").withoutStackTrace();
+            recording.enable("jdk.VirtualThreadEnd").withoutStackTrace();
+            recording.onEvent("jdk.VirtualThreadStart", event -> live.incrementAndGet());
+            recording.onEvent("jdk.VirtualThreadEnd", event -> live.decrementAndGet());
+        }
+
+        recording.startAsync();
+        stream = recording;
+        log.info("Virtual-thread mode on: {} carriers, logging pins longer than {}ms",
+                carrierParallelism(), pinnedThreshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream current = stream;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+
+        String frames = "unknown";
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> top = event.getStackTrace().getFrames();
+            frames = top.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining(" <- "));
+        }
+        log.warn("Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(), frames);
+    }
+
+    /**
+     * Pinned nanoseconds since the previous sample over the carrier nanoseconds available in that interval.
+     */
+    private synchronized double pinnedRatio() {
+        long now = System.nanoTime();
+        long pinnedTotal = pinnedNanos.get();
+        long elapsed = now - lastSampleNanos;
+        long pinnedDelta = pinnedTotal - lastPinnedNanos;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        lastSampleNanos = now;
+        lastPinnedNanos = pinnedTotal;
+        return Math.min(1.0, pinnedDelta / (elapsed * carrierParallelism()));
+    }
+
+    private static double carrierParallelism() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,19 @@
+package com.snaptask.server.snaptask_server.config;
+
+import com.snaptask.server.snaptask_server.filter.FreshUserInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final FreshUserInterceptor freshUserInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(freshUserInterceptor);
+    }
+}
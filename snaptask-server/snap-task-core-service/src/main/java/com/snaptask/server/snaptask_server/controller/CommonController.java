@@ -1,13 +1,12 @@
 package com.snaptask.server.snaptask_server.controller;
 
+import com.snaptask.server.snaptask_server.dto.notification.UpdateNotificationStatusDto;
 import com.snaptask.server.snaptask_server.dto.user.SetLocationDto;
+import com.snaptask.server.snaptask_server.filter.RequiresFreshUser;
 import com.snaptask.server.snaptask_server.service.user.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/common")
@@ -20,8 +19,28 @@ public class CommonController {
      * Update the poster’s current location.
      * Example: PUT /poster/profile/location
      */
+    @RequiresFreshUser
     @PutMapping("/location")
     public ResponseEntity<?> updateLocation(@Valid @RequestBody SetLocationDto dto) {
         return userService.setLocation(dto);
     }
+
+    /*
+     * Unread notification badge count, served from a maintained counter.
+     * Example: GET /common/notifications/unread-count
+     */
+    @GetMapping("/notifications/unread-count")
+    public ResponseEntity<?> getUnreadNotificationCount() {
+        return userService.getUnreadNotificationCount();
+    }
+
+    /*
+     * Mark several notifications READ or ARCHIVED in one call.
+     * Example: PATCH /common/notifications/status
+     */
+    @RequiresFreshUser
+    @PatchMapping("/notifications/status")
+    public ResponseEntity<?> updateNotificationStatus(@Valid @RequestBody UpdateNotificationStatusDto dto) {
+        return userService.updateNotificationStatus(dto);
+    }
 }
@@ -1,6 +1,9 @@
 package com.snaptask.server.snaptask_server.controller.poster;
 
+import com.snaptask.server.snaptask_server.dto.common.CursorPageDto;
 import com.snaptask.server.snaptask_server.dto.task.*;
+import com.snaptask.server.snaptask_server.enums.TaskStatus;
+import com.snaptask.server.snaptask_server.filter.RequiresFreshUser;
 import com.snaptask.server.snaptask_server.modals.Task;
 import com.snaptask.server.snaptask_server.service.bid.BidServices;
 import com.snaptask.server.snaptask_server.service.task.TaskService;
@@ -32,18 +35,21 @@ public class PosterController {
     }
 
 
+    @RequiresFreshUser
     @PostMapping("/create")
     public ResponseEntity<String> createTask(@Valid @RequestBody CreateTaskDto dto) {
         return taskService.createTask(dto);
     }
 
 
+    @RequiresFreshUser
     @PutMapping("/update")
     public ResponseEntity<String> updateTask(@Valid @RequestBody UpdateTaskDto dto) {
         return taskService.updateTask(dto);
     }
 
 
+    @RequiresFreshUser
     @DeleteMapping("/delete")
     public ResponseEntity<?> deleteTask(@Valid @RequestBody DeleteTaskDto dto) {
         return taskService.deleteTask(dto);
@@ -54,6 +60,15 @@ public class PosterController {
         return taskService.getPosterTasksSummary();
     }
 
+    @GetMapping("tasks")
+    public ResponseEntity<CursorPageDto<PosterTaskSummaryDto>> getPosterTasksByStatus(
+            @RequestParam TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return taskService.getPosterTasksByStatus(status, cursor, size);
+    }
+
     @GetMapping("task/{taskId}")
     public ResponseEntity<PosterTaskDetailDto> getPosterTaskDetails(
             @PathVariable @NotBlank(message = "Task ID cannot be blank") String taskId
@@ -68,17 +83,20 @@ public class PosterController {
     }
 
 
+    @RequiresFreshUser
     @PostMapping("/{bidId}/accept")
     public ResponseEntity<?> acceptBid(@PathVariable String bidId) {
         return bidServices.acceptBid(bidId);
     }
 
 
+    @RequiresFreshUser
     @PostMapping("/{bidId}/reject")
     public ResponseEntity<?> rejectBid(@PathVariable String bidId) {
         return bidServices.rejectBid(bidId);
     }
 
+    @RequiresFreshUser
     @PostMapping("/{taskId}/approve_completion")
     public ResponseEntity<Map<String, Object>> approveTaskCompletion(@PathVariable String taskId) {
         return taskService.approveTaskCompletion(taskId);
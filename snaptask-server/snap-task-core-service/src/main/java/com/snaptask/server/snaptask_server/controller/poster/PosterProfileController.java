@@ -1,11 +1,14 @@
 package com.snaptask.server.snaptask_server.controller.poster;
 
+import com.snaptask.server.snaptask_server.dto.common.CursorPageDto;
 import com.snaptask.server.snaptask_server.dto.notification.PosterNotificationDto;
 import com.snaptask.server.snaptask_server.dto.user.ProfileDto;
 import com.snaptask.server.snaptask_server.dto.user.RegisterFcmDto;
 import com.snaptask.server.snaptask_server.dto.user.SetLocationDto;
 import com.snaptask.server.snaptask_server.dto.user.UpdatePosterProfileDto;
-import com.snaptask.server.snaptask_server.service.task.TaskService;
+import com.snaptask.server.snaptask_server.enums.NotificationStatus;
+import com.snaptask.server.snaptask_server.filter.RequiresFreshUser;
+import com.snaptask.server.snaptask_server.service.ExpoPushService;
 import com.snaptask.server.snaptask_server.service.user.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,18 +16,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/poster/profile")
 public class PosterProfileController {
     private final UserService userService;
-    private final TaskService taskService;
+    private final ExpoPushService expoPushService;
     public PosterProfileController(
             UserService userService,
-            TaskService taskService
+            ExpoPushService expoPushService
     ){
         this.userService = userService;
-        this.taskService = taskService;
+        this.expoPushService = expoPushService;
     }
 
 
@@ -33,6 +37,7 @@ public class PosterProfileController {
      * Register or update FCM token (for push notifications).
      * Example: POST /poster/profile/fcm
      */
+    @RequiresFreshUser
     @PostMapping("/fcm")
     public ResponseEntity<?> registerFcm(@Valid @RequestBody RegisterFcmDto dto) {
         return userService.registerFcm(dto);
@@ -42,6 +47,7 @@ public class PosterProfileController {
      *  Fetch current logged-in poster’s profile.
      * Example: GET /poster/profile
      */
+    @RequiresFreshUser
     @GetMapping
     public ResponseEntity<ProfileDto> getProfile() {
         return ResponseEntity.ok(userService.getProfile());
@@ -51,6 +57,7 @@ public class PosterProfileController {
      * Update editable fields in poster’s profile.
      * Example: PUT /poster/profile
      */
+    @RequiresFreshUser
     @PutMapping
     public ResponseEntity<String> updateProfile(@Valid @RequestBody UpdatePosterProfileDto dto) {
         return userService.updateProfile(dto);
@@ -65,10 +72,23 @@ public class PosterProfileController {
         return userService.getAllPosterNotifications();
     }
 
+    /**
+     * Cursor-paginated notification inbox, newest first.
+     * Example: GET /poster/profile/notifications/inbox?status=NEW&size=20&cursor=...
+     */
+    @GetMapping("/notifications/inbox")
+    public ResponseEntity<CursorPageDto<PosterNotificationDto>> getPosterNotificationInbox(
+            @RequestParam(required = false) NotificationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return userService.getPosterNotificationInbox(status, cursor, size);
+    }
+
 //    test controller
      @PostMapping("/test")
     public String testPushNotification(@RequestParam String token){
-        taskService.sendPushNotification(token, "this is test title ", "working fine ");
+        expoPushService.sendNotification(token, "this is test title ", "working fine ", Map.of());
         return "notfication send successfully";
      }
 
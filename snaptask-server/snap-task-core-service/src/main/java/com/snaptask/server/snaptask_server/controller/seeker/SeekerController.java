@@ -2,11 +2,19 @@ package com.snaptask.server.snaptask_server.controller.seeker;
 
 import com.snaptask.server.snaptask_server.dto.task.CreateBidDto;
 import com.snaptask.server.snaptask_server.dto.task.TaskCompletionRequest;
+import com.snaptask.server.snaptask_server.enums.TaskStatus;
+import com.snaptask.server.snaptask_server.enums.WorkMode;
+import com.snaptask.server.snaptask_server.filter.RequiresFreshUser;
 import com.snaptask.server.snaptask_server.modals.Task;
 import com.snaptask.server.snaptask_server.service.task.TaskService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/seeker")
@@ -28,6 +36,97 @@ public class SeekerController {
         return taskService.getSeekerTaskSummery(category);
     }
 
+    /**
+     * Keyset-paginated feed of open tasks in a category, newest first.
+     * Example: GET /seeker/tasks/feed?category=Design&size=20&cursor=...
+     */
+    @GetMapping("/tasks/feed")
+    public ResponseEntity<?> getTaskFeed(
+            @RequestParam String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (category == null || category.isBlank()) {
+            return ResponseEntity.badRequest().body("Category must not be empty.");
+        }
+        return taskService.getSeekerTaskFeed(category, cursor, size);
+    }
+
+    /**
+     * Open ONSITE tasks near a point (default: the seeker's saved location), nearest first.
+     * Optional category filter and map viewport (all four of minLat/minLng/maxLat/maxLng).
+     * Example: GET /seeker/tasks/nearby?lat=12.97&lng=77.59&radiusKm=5&category=Plumbing&size=20&cursor=...
+     */
+    @GetMapping("/tasks/nearby")
+    public ResponseEntity<?> getNearbyTasks(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLng,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        if ((lat == null) != (lng == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat and lng must be given together.");
+        }
+        if (lat != null && (Math.abs(lat) > 90 || Math.abs(lng) > 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat/lng out of range.");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must be positive.");
+        }
+
+        double[] box = null;
+        int boxParams = (int) Stream.of(minLat, minLng, maxLat, maxLng).filter(Objects::nonNull).count();
+        if (boxParams == 4) {
+            if (minLat >= maxLat || minLng >= maxLng) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Viewport min values must be below max values.");
+            }
+            box = new double[]{minLng, minLat, maxLng, maxLat};
+        } else if (boxParams != 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Viewport needs minLat, minLng, maxLat and maxLng.");
+        }
+        return taskService.getNearbySeekerTasks(lat, lng, radiusKm, category, box, cursor, size);
+    }
+
+    /**
+     * Open tasks ranked across all of the seeker's skills and their location, best first.
+     * Example: GET /seeker/tasks/for-you?size=20&cursor=...
+     */
+    @GetMapping("/tasks/for-you")
+    public ResponseEntity<?> getForYouFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return taskService.getForYouFeed(cursor, size);
+    }
+
+    /**
+     * Keyword search over task title, category and description, most relevant first.
+     * Defaults to open (ACTIVE) tasks of any work mode.
+     * Example: GET /seeker/tasks/search?q=logo design&mode=REMOTE&size=20&cursor=...
+     */
+    @GetMapping("/tasks/search")
+    public ResponseEntity<?> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "ACTIVE") TaskStatus status,
+            @RequestParam(required = false) WorkMode mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (q == null || q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be empty.");
+        }
+        if (q.length() > 200) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query cannot exceed 200 characters.");
+        }
+        return taskService.searchTasks(q, status, mode, cursor, size);
+    }
+
     @GetMapping("/tasks/assigned")
     public ResponseEntity<?> getAssignedTaskSummery() {
         return taskService.getAssignedTasksForSeeker();
@@ -43,12 +142,14 @@ public class SeekerController {
         return taskService.getSeekerTaskDetails(taskId);
     }
 
+    @RequiresFreshUser
     @PostMapping("/makeBid")
     public ResponseEntity<?> makeBid(@Valid @RequestBody CreateBidDto dto) {
         return taskService.makeBid(dto);
     }
 
 
+    @RequiresFreshUser
     @PostMapping("/task/complete_request")
     public ResponseEntity<?> markTaskAsCompleted(
             @RequestBody TaskCompletionRequest request
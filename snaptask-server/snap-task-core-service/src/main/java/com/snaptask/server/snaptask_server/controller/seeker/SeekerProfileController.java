@@ -1,11 +1,14 @@
 package com.snaptask.server.snaptask_server.controller.seeker;
 
+import com.snaptask.server.snaptask_server.dto.common.CursorPageDto;
 import com.snaptask.server.snaptask_server.dto.notification.PosterNotificationDto;
 import com.snaptask.server.snaptask_server.dto.notification.SeekerNotificationDto;
 import com.snaptask.server.snaptask_server.dto.user.ProfileDto;
 import com.snaptask.server.snaptask_server.dto.user.RegisterFcmDto;
 import com.snaptask.server.snaptask_server.dto.user.SetLocationDto;
 import com.snaptask.server.snaptask_server.dto.user.UpdatePosterProfileDto;
+import com.snaptask.server.snaptask_server.enums.NotificationStatus;
+import com.snaptask.server.snaptask_server.filter.RequiresFreshUser;
 import com.snaptask.server.snaptask_server.service.task.TaskService;
 import com.snaptask.server.snaptask_server.service.user.UserService;
 import jakarta.validation.Valid;
@@ -34,6 +37,7 @@ public class SeekerProfileController {
      * Register or update FCM token (for push notifications).
      * Example: POST /poster/profile/fcm
      */
+    @RequiresFreshUser
     @PostMapping("/fcm")
     public ResponseEntity<?> registerFcm(@Valid @RequestBody RegisterFcmDto dto) {
         return userService.registerFcm(dto);
@@ -43,6 +47,7 @@ public class SeekerProfileController {
      *  Fetch current logged-in poster’s profile.
      * Example: GET /poster/profile
      */
+    @RequiresFreshUser
     @GetMapping
     public ResponseEntity<ProfileDto> getProfile() {
         return ResponseEntity.ok(userService.getProfile());
@@ -52,6 +57,7 @@ public class SeekerProfileController {
      * Update editable fields in poster’s profile.
      * Example: PUT /poster/profile
      */
+    @RequiresFreshUser
     @PutMapping
     public ResponseEntity<String> updateProfile(@Valid @RequestBody UpdatePosterProfileDto dto) {
         return userService.updateProfile(dto);
@@ -66,4 +72,17 @@ public class SeekerProfileController {
         return userService.getAllSeekerNotifications();
     }
 
+    /**
+     * Cursor-paginated notification inbox, newest first.
+     * Example: GET /seeker/profile/notifications/inbox?status=NEW&size=20&cursor=...
+     */
+    @GetMapping("/notifications/inbox")
+    public ResponseEntity<CursorPageDto<SeekerNotificationDto>> getSeekerNotificationInbox(
+            @RequestParam(required = false) NotificationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return userService.getSeekerNotificationInbox(status, cursor, size);
+    }
+
 }
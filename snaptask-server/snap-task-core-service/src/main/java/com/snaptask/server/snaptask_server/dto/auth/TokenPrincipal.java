@@ -0,0 +1,71 @@
+package com.snaptask.server.snaptask_server.dto.auth;
+
+import com.snaptask.server.snaptask_server.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Security principal built only from verified JWT claims (claims-only authentication mode).
+ *
+ * Carries just enough identity to authorize the request without loading the User document.
+ * The full User is fetched lazily by Helper when an endpoint needs fresh user state.
+ */
+@Getter
+@Builder
+@ToString
+public class TokenPrincipal implements UserDetails {
+
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final String id;
+
+    private final String email;
+
+    private final UserRole role;
+
+    private final int tokenVersion;
+
+    /**
+     * Returns null when the token predates claims-only mode and misses id or role.
+     */
+    public static TokenPrincipal fromClaims(Claims claims) {
+        String id = claims.get(CLAIM_ID, String.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (id == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return TokenPrincipal.builder()
+                .id(id)
+                .email(claims.getSubject())
+                .role(UserRole.valueOf(role))
+                .tokenVersion(version != null ? version : 0)
+                .build();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,10 @@
+package com.snaptask.server.snaptask_server.dto.notification;
+
+import java.util.List;
+
+/**
+ * Minimal view of a seeker used when fanning out notifications: the id for the inbox entry
+ * and the Expo push tokens of all their registered devices (empty when none).
+ */
+public record SeekerPushTarget(String id, List<String> pushTokens) {
+}
@@ -0,0 +1,19 @@
+package com.snaptask.server.snaptask_server.dto.notification;
+
+import com.snaptask.server.snaptask_server.enums.NotificationStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UpdateNotificationStatusDto {
+    @NotEmpty(message = "notificationIds required.")
+    @Size(max = 500, message = "At most 500 notifications can be updated at once.")
+    private List<String> notificationIds;
+
+    @NotNull(message = "status required.")
+    private NotificationStatus status; // READ or ARCHIVED
+}
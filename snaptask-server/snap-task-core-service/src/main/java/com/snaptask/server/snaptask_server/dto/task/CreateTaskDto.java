@@ -27,6 +27,19 @@ public class CreateTaskDto {
     @NotNull(message = "work mode can not be blank")
     private WorkMode mode;
 
+    //  ONSITE only: where the task takes place, defaults to the poster's saved location
+    @DecimalMin(value = "-90.0", message = "Latitude must be >= -90")
+    @DecimalMax(value = "90.0", message = "Latitude must be <= 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be >= -180")
+    @DecimalMax(value = "180.0", message = "Longitude must be <= 180")
+    private Double longitude;
+
+    @DecimalMin(value = "1.0", message = "Notification radius must be at least 1 km.")
+    @DecimalMax(value = "50.0", message = "Notification radius cannot exceed 50 km.")
+    private Double radiusKm;
+
     @NotNull(message = "Task deadline is required.")
     @Future(message = "Deadline must be a future date and time.")
     private LocalDateTime deadline;
@@ -37,6 +50,11 @@ public class CreateTaskDto {
     @DecimalMin(value = "0.0", inclusive = true, message = "Budget must be zero or a positive number.")
     private double budget;
 
+    @AssertTrue(message = "Latitude and longitude must be given together.")
+    private boolean isLocationComplete() {
+        return (latitude == null) == (longitude == null);
+    }
+
     @AssertTrue(message = "If the task is unpaid, the budget must be 0.")
     private boolean isBudgetConsistent() {
         return !Boolean.TRUE.equals(isUnpaid) || budget == 0.0;
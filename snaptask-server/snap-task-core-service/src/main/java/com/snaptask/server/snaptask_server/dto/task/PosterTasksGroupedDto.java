@@ -3,6 +3,10 @@ package com.snaptask.server.snaptask_server.dto.task;
 import lombok.*;
 import java.util.List;
 
+/**
+ * Poster dashboard: the first page of each status group plus its total.
+ * A non-null next cursor can be passed to /poster/tasks to load the rest of that group.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -11,4 +15,12 @@ public class PosterTasksGroupedDto {
     private List<PosterTaskSummaryDto> active;
     private List<PosterTaskSummaryDto> pending;
     private List<PosterTaskSummaryDto> completed;
+
+    private long activeCount;
+    private long pendingCount;
+    private long completedCount;
+
+    private String activeNextCursor;
+    private String pendingNextCursor;
+    private String completedNextCursor;
 }
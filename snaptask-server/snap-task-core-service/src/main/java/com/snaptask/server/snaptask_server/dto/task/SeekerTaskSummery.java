@@ -39,4 +39,7 @@ public class SeekerTaskSummery {
     private String status;
     
     private boolean alredyMadebid;
+
+    // only set by the nearby feed
+    private Double distanceKm;
 }
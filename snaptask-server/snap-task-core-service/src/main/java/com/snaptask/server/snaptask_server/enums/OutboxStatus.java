@@ -0,0 +1,6 @@
+package com.snaptask.server.snaptask_server.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DEAD
+}
@@ -0,0 +1,24 @@
+package com.snaptask.server.snaptask_server.exceptions.customExceptions;
+
+/**
+ * Push provider call failed. Retryable for transport errors, timeouts, 429 and 5xx responses.
+ */
+public class PushDeliveryException extends NotificationException {
+
+    private final int statusCode;
+    private final boolean retryable;
+
+    public PushDeliveryException(String message, int statusCode, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.retryable = retryable;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
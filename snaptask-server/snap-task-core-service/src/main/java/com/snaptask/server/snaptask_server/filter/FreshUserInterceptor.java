@@ -0,0 +1,35 @@
+package com.snaptask.server.snaptask_server.filter;
+
+import com.snaptask.server.snaptask_server.util.Helper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Resolves the full User up front for handlers annotated with {@link RequiresFreshUser}.
+ */
+@Component
+public class FreshUserInterceptor implements HandlerInterceptor {
+    private final Helper helper;
+
+    public FreshUserInterceptor(Helper helper) {
+        this.helper = helper;
+    }
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler
+    ) {
+        if (handler instanceof HandlerMethod handlerMethod
+                && (handlerMethod.hasMethodAnnotation(RequiresFreshUser.class)
+                || handlerMethod.getBeanType().isAnnotationPresent(RequiresFreshUser.class))) {
+            helper.getCurrentLoggedInUser();
+        }
+        return true;
+    }
+}
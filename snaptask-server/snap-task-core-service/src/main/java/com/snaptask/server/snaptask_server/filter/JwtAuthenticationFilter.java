@@ -1,11 +1,15 @@
 package com.snaptask.server.snaptask_server.filter;
 
 
+import com.snaptask.server.snaptask_server.dto.auth.TokenPrincipal;
+import com.snaptask.server.snaptask_server.modals.User;
 import com.snaptask.server.snaptask_server.service.auth.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -25,14 +29,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
+    /**
+     * When enabled the principal is built from the signed claims alone and no user lookup happens here.
+     * The User document is only loaded later by Helper for endpoints that need fresh user state.
+     */
+    private final boolean claimsOnly;
+
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            HandlerExceptionResolver handlerExceptionResolver,
+            @Value("${security.jwt.claims-only:false}") boolean claimsOnly
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.claimsOnly = claimsOnly;
     }
 
     @Override
@@ -49,14 +61,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            // Parse and verify the token once, every later check works on these claims
+            final Claims claims = jwtService.verifyToken(jwt);
+            final String userEmail = claims.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                TokenPrincipal tokenPrincipal = claimsOnly ? TokenPrincipal.fromClaims(claims) : null;
+                UserDetails userDetails = tokenPrincipal != null
+                        ? tokenPrincipal
+                        : this.userDetailsService.loadUserByUsername(userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails) && isCurrentTokenVersion(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -73,4 +90,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
+
+    private boolean isCurrentTokenVersion(Claims claims, UserDetails userDetails) {
+        if (!(userDetails instanceof User user)) {
+            return true;
+        }
+        Integer version = claims.get(TokenPrincipal.CLAIM_TOKEN_VERSION, Integer.class);
+        return (version != null ? version : 0) == user.getTokenVersion();
+    }
 }
@@ -0,0 +1,15 @@
+package com.snaptask.server.snaptask_server.filter;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks endpoints that must run against the current User document rather than the token claims.
+ *
+ * In claims-only mode the user is loaded (and its token version checked) before the handler runs.
+ * Without claims-only mode the filter already loaded the user, so this is a no-op.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresFreshUser {
+}
@@ -15,6 +15,7 @@
     @NoArgsConstructor
     @AllArgsConstructor
     @Document(collection = "bids")
+    // One bid per seeker per task: the unique bid_task_seeker_uidx is created by BidDedupMigration once older duplicates are gone
     public class Bid {
 
         @Id
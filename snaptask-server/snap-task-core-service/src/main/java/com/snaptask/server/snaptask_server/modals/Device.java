@@ -0,0 +1,38 @@
+package com.snaptask.server.snaptask_server.modals;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * A push-capable device registered by a user. A user may have several; a token belongs to at most one user
+ * (re-registering a token from another account moves it).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "devices")
+public class Device {
+
+    @Id
+    private String id;
+
+    @Indexed(name = "device_user_idx")
+    @Field("user_id")
+    private String userId;
+
+    @Indexed(name = "device_token_idx", unique = true)
+    @Field("token")
+    private String token;
+
+    @Field("created_at")
+    private Instant createdAt;
+
+    @Field("last_seen_at")
+    private Instant lastSeenAt;
+}
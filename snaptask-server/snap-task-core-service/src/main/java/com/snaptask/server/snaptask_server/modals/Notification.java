@@ -11,27 +11,18 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
-import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notifications")
-@CompoundIndexes({
-        @CompoundIndex(
-                name = "notif_query_idx",
-                def = "{'user_id': 1, 'target_role': 1, 'status': 1, 'is_seen': 1, 'created_at': -1}"
-        )
-})
 public class Notification {
 
     @Id
     private String id;
 
-    @Indexed(name = "user_id_idx")
-    @Field("user_id")
-    private List<String> receiverIds; // All receiver user IDs
+    // Recipients are not stored here: each one gets a NotificationInboxEntry pointing at this document
 
     @Field("sender_id")
     private String senderId;
@@ -39,6 +30,7 @@ public class Notification {
     @Field("sender_name")
     private String senderName;
 
+    @Indexed(name = "task_id_idx")
     @Field("task_id")
     private String taskId;
 
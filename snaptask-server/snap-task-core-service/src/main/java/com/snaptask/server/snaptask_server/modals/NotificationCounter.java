@@ -0,0 +1,24 @@
+package com.snaptask.server.snaptask_server.modals;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Unread notification count of one user, kept in step with the inbox by $inc on every delivery and status change,
+ * so the badge count is a single _id lookup instead of a count over the inbox.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    private String userId;
+
+    @Field("unread")
+    private long unread;
+}
@@ -0,0 +1,52 @@
+package com.snaptask.server.snaptask_server.modals;
+
+import com.snaptask.server.snaptask_server.enums.NotificationStatus;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * One recipient's copy of a notification (fan-out on write).
+ *
+ * Small and fixed-size: the shared content lives once in {@link Notification}, each entry only points at it
+ * and carries the per-recipient read state. A user's inbox is a range scan on inbox_user_status_idx.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notification_inbox")
+@CompoundIndexes({
+        @CompoundIndex(
+                name = "inbox_user_status_idx",
+                def = "{'user_id': 1, 'status': 1, 'created_at': -1, '_id': -1}"
+        )
+})
+public class NotificationInboxEntry {
+
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private String userId;
+
+    @Field("notification_id")
+    private String notificationId;
+
+    @Indexed(name = "inbox_task_idx")
+    @Field("task_id")
+    private String taskId;
+
+    @Field("status")
+    @Builder.Default
+    private NotificationStatus status = NotificationStatus.NEW;
+
+    @Field("created_at")
+    private Instant createdAt;
+}
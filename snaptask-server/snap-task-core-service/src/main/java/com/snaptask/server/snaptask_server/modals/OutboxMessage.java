@@ -0,0 +1,63 @@
+package com.snaptask.server.snaptask_server.modals;
+
+import com.snaptask.server.snaptask_server.enums.OutboxStatus;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A push waiting to be delivered to every device of one user.
+ *
+ * Written together with the notification it announces and deleted once Expo has accepted it.
+ * A dispatcher owns a message while its lease is valid; an expired lease makes it claimable again,
+ * so a node that dies mid-send only delays the push.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "outbox")
+@CompoundIndex(name = "outbox_due_idx", def = "{'status': 1, 'available_at': 1}")  //  claim scan: pending, oldest due first
+public class OutboxMessage {
+
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private String userId;
+
+    @Field("title")
+    private String title;
+
+    @Field("body")
+    private String body;
+
+    @Field("data")
+    private Map<String, Object> data;
+
+    @Field("status")
+    private OutboxStatus status;
+
+    @Field("attempts")
+    private int attempts;
+
+    @Field("available_at")
+    private Instant availableAt;
+
+    @Field("lease_token")
+    private String leaseToken;
+
+    @Field("lease_until")
+    private Instant leaseUntil;
+
+    @Field("last_error")
+    private String lastError;
+
+    @Field("created_at")
+    private Instant createdAt;
+}
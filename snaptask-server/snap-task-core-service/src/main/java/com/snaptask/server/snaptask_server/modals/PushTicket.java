@@ -0,0 +1,36 @@
+package com.snaptask.server.snaptask_server.modals;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Expo ticket of an accepted push, kept until its receipt has been checked.
+ * A ticket whose receipt is not ready yet is re-checked later; Expo drops receipts after about a day,
+ * so the TTL index removes tickets that were never resolved.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "push_tickets")
+public class PushTicket {
+
+    @Id
+    private String ticketId;
+
+    @Field("token")
+    private String token;
+
+    @Indexed(name = "push_ticket_ttl_idx", expireAfter = "1d")
+    @Field("created_at")
+    private Instant createdAt;
+
+    @Indexed(name = "push_ticket_check_after_idx")
+    @Field("check_after")
+    private Instant checkAfter;
+}
@@ -10,7 +10,11 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -26,21 +30,29 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "tasks")
-@CompoundIndex(def = "{'poster_id': 1, 'status': 1}")  //  speeds up frequent queries like find by poster + status
+@CompoundIndexes({
+        //  poster dashboard: equality on poster/status, then newest first for keyset pages within a status group
+        @CompoundIndex(name = "poster_tasks_by_status_idx", def = "{'poster_id': 1, 'status': 1, 'posted_on': -1, '_id': -1}"),
+        //  keyset pagination of the seeker feed: equality on category/is_assigned/status, then newest first
+        @CompoundIndex(name = "open_tasks_by_category_status_idx", def = "{'category': 1, 'is_assigned': 1, 'status': 1, 'posted_on': -1, '_id': -1}")
+})
 public class Task {
 
     @Id
     private String id;
 
+    //  keyword search: one weighted text index over title, category and description (title matches rank highest)
     @Field("title")
-    @Indexed  //  tasks are often searched by title/keywords
+    @TextIndexed(weight = 10)
     private String title;
 
     @Field("description")
+    @TextIndexed
     private String description;
 
     @Field("category")
     @Indexed
+    @TextIndexed(weight = 5)
     private String category;
 
     @Field("budget")
@@ -52,6 +64,18 @@ public class Task {
     @Field("mode")
     private WorkMode mode;
 
+    /**
+     * Where an ONSITE task takes place; absent for REMOTE tasks.
+     * 2dsphere index serves the seeker's nearby feed ($geoNear).
+     */
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    @Field("location")
+    private GeoJsonPoint location;
+
+    //  ONSITE fan-out radius around the poster; null means the service default
+    @Field("radius_km")
+    private Double radiusKm;
+
     @Field("duration")
     private String duration;
 
@@ -89,6 +89,10 @@ public class User implements UserDetails {
     @Field("completedTask")
     private int completedTasks;
 
+    /**
+     * @deprecated single-device token from before the devices collection; only read by DeviceTokenMigration.
+     */
+    @Deprecated
     @Field("fcmToken")
     private String fcmToken;
 
@@ -109,6 +113,12 @@ public class User implements UserDetails {
     @Field("roleId")
     private String roleId;
 
+    /**
+     * Embedded in issued tokens; bumping it invalidates every token issued before.
+     */
+    @Field("token_version")
+    private int tokenVersion;
+
     // --- UserDetails methods ---
     @Override
     public String getUsername() {
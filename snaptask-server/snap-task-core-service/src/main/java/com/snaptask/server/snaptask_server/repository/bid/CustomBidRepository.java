@@ -0,0 +1,126 @@
+package com.snaptask.server.snaptask_server.repository.bid;
+
+import com.snaptask.server.snaptask_server.enums.BidStatus;
+import com.snaptask.server.snaptask_server.modals.Bid;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@Slf4j
+public class CustomBidRepository {
+
+    /**
+     * Fields needed to build a PosterBidSummaryDto or AssignedBidInfoDto.
+     */
+    public static final String[] POSTER_SUMMARY_FIELDS = {
+            "seeker_id", "seeker_name", "tagline", "rating", "bid_amount", "proposal", "completed_tasks"
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private volatile boolean taskSeekerUniqueIndexReady;
+
+    public CustomBidRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void updateStatus(String bidId, BidStatus status) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(bidId)),
+                new Update().set("status", status).set("updated_at", LocalDateTime.now()),
+                Bid.class
+        );
+    }
+
+    /**
+     * Rejects every other bid on the task in one server-side update; no bid documents are read.
+     *
+     * @return number of bids rejected
+     */
+    public long rejectOtherBids(String taskId, String acceptedBidId) {
+        Query query = new Query(Criteria.where("task_id").is(taskId)
+                .and("_id").ne(acceptedBidId)
+                .and("status").ne(BidStatus.REJECTED));
+        Update update = new Update()
+                .set("status", BidStatus.REJECTED)
+                .set("updated_at", LocalDateTime.now());
+
+        long rejected = mongoTemplate.updateMulti(query, update, Bid.class).getModifiedCount();
+        log.debug("Rejected {} other bids for task {}", rejected, taskId);
+        return rejected;
+    }
+
+    /**
+     * Newest bids of a task, capped and projected to the poster summary fields.
+     */
+    public List<Bid> findSummariesByTaskId(String taskId, int limit) {
+        Query query = new Query(Criteria.where("task_id").is(taskId))
+                .with(Sort.by(Sort.Direction.DESC, "created_at").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
+        query.fields().include(POSTER_SUMMARY_FIELDS);
+        return mongoTemplate.find(query, Bid.class);
+    }
+
+    /**
+     * Groups of bids placed by the same seeker on the same task, from before the unique index existed.
+     * Bids are projected to their status and created_at.
+     */
+    public List<List<Bid>> findDuplicateBids() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.project("task_id", "seeker_id", "status", "created_at"),
+                Aggregation.group("task_id", "seeker_id").push(Aggregation.ROOT).as("bids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        List<List<Bid>> groups = new ArrayList<>();
+        for (Document group : mongoTemplate.aggregate(duplicates, Bid.class, Document.class)) {
+            groups.add(group.getList("bids", Document.class).stream()
+                    .map(bid -> mongoTemplate.getConverter().read(Bid.class, bid))
+                    .toList());
+        }
+        return groups;
+    }
+
+    /**
+     * Creates bid_task_seeker_uidx, the one-bid-per-seeker-per-task guard makeBid relies on. No-op once it exists.
+     */
+    public void ensureTaskSeekerUniqueIndex() {
+        mongoTemplate.indexOps(Bid.class).createIndex(new Index()
+                .on("task_id", Sort.Direction.ASC)
+                .on("seeker_id", Sort.Direction.ASC)
+                .unique()
+                .named("bid_task_seeker_uidx"));
+        taskSeekerUniqueIndexReady = true;
+    }
+
+    /**
+     * Whether bid_task_seeker_uidx has been confirmed by this instance; until then callers check for duplicates themselves.
+     */
+    public boolean hasTaskSeekerUniqueIndex() {
+        return taskSeekerUniqueIndexReady;
+    }
+
+    public Bid findSummaryById(String bidId) {
+        Query query = new Query(Criteria.where("_id").is(bidId));
+        query.fields().include(POSTER_SUMMARY_FIELDS);
+        return mongoTemplate.findOne(query, Bid.class);
+    }
+
+    public Bid findAcceptedBid(String taskId) {
+        Query query = new Query(Criteria.where("task_id").is(taskId).and("status").is(BidStatus.ACCEPTED));
+        query.fields().include(POSTER_SUMMARY_FIELDS);
+        return mongoTemplate.findOne(query, Bid.class);
+    }
+}
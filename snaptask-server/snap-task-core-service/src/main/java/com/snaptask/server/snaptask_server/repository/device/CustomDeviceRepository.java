@@ -0,0 +1,78 @@
+package com.snaptask.server.snaptask_server.repository.device;
+
+import com.snaptask.server.snaptask_server.modals.Device;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Repository
+@Slf4j
+public class CustomDeviceRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomDeviceRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Registers a token for a user, or refreshes it, with a single atomic upsert keyed by the unique token.
+     * Two concurrent registrations of a new token can both try the insert; the loser hits device_token_idx and
+     * is retried once, which then matches the winner's device and updates it.
+     *
+     * @return the device before the update, or null if the token is new
+     */
+    public Device upsert(String userId, String token) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("user_id", userId)
+                .set("last_seen_at", now)
+                .setOnInsert("created_at", now);
+        Query query = new Query(Criteria.where("token").is(token));
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(false);
+
+        try {
+            return mongoTemplate.findAndModify(query, update, options, Device.class);
+        } catch (DuplicateKeyException e) {
+            log.debug("Concurrent registration of the same push token, retrying as an update");
+            return mongoTemplate.findAndModify(query, update, options, Device.class);
+        }
+    }
+
+    /**
+     * All push tokens of the given users, grouped by user id, in one query on device_user_idx.
+     */
+    public Map<String, List<String>> findTokensByUserIds(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Query query = new Query(Criteria.where("user_id").in(userIds));
+        query.fields().include("user_id", "token");
+        return mongoTemplate.find(query, Device.class).stream()
+                .collect(Collectors.groupingBy(
+                        Device::getUserId,
+                        Collectors.mapping(Device::getToken, Collectors.toList())
+                ));
+    }
+
+    public List<String> findTokensByUserId(String userId) {
+        return findTokensByUserIds(List.of(userId)).getOrDefault(userId, List.of());
+    }
+
+    public long deleteByTokens(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(new Query(Criteria.where("token").in(tokens)), Device.class).getDeletedCount();
+    }
+}
@@ -2,15 +2,27 @@ package com.snaptask.server.snaptask_server.repository.notification;
 
 import com.snaptask.server.snaptask_server.enums.NotificationStatus;
 import com.snaptask.server.snaptask_server.modals.Notification;
+import com.snaptask.server.snaptask_server.modals.NotificationCounter;
+import com.snaptask.server.snaptask_server.modals.NotificationInboxEntry;
+import com.snaptask.server.snaptask_server.util.PageCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
@@ -23,29 +35,237 @@ public class CustomNotificationRepository {
         this.mongoTemplate = mongoTemplate;
     }
 
-    public List<Notification> findByReceiverIdAndStatus(String receiverId, NotificationStatus status) {
-        log.info("Executing custom Mongo query for receiverId={} and status={}", receiverId, status);
+    /**
+     * Newest notifications of one user in the given status.
+     * Reads at most limit inbox entries from inbox_user_status_idx, then loads their bodies with a single $in query.
+     * The returned notifications carry the recipient's own status, not the shared body's.
+     */
+    public List<Notification> findByReceiverIdAndStatus(String receiverId, NotificationStatus status, int limit) {
+        Query query = new Query(Criteria.where("user_id").is(receiverId).and("status").is(status))
+                .with(Sort.by(Sort.Direction.DESC, "created_at").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
 
-        Criteria criteria = new Criteria().andOperator(
-                Criteria.where("user_id").is(receiverId),
-                Criteria.where("status").is(status.name())
+        List<NotificationInboxEntry> entries = mongoTemplate.find(query, NotificationInboxEntry.class);
+        List<Notification> results = loadBodies(entries);
+        log.info("Found {} notifications for user {}", results.size(), receiverId);
+        return results;
+    }
+
+    /**
+     * Loads the notification bodies of the given inbox entries, in entry order.
+     */
+    public List<Notification> loadBodies(List<NotificationInboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> notificationIds = entries.stream()
+                .map(NotificationInboxEntry::getNotificationId)
+                .distinct()
+                .toList();
+        Map<String, Notification> bodies = mongoTemplate
+                .find(new Query(Criteria.where("_id").in(notificationIds)), Notification.class)
+                .stream()
+                .collect(Collectors.toMap(Notification::getId, Function.identity()));
+
+        return entries.stream()
+                .map(entry -> {
+                    Notification body = bodies.get(entry.getNotificationId());
+                    if (body == null) {
+                        return null;
+                    }
+                    body.setStatus(entry.getStatus());
+                    return body;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Creates one inbox entry per recipient with a single unordered bulk insert.
+     */
+    public void insertInboxEntries(Notification notification, List<String> receiverIds) {
+        if (receiverIds.isEmpty()) {
+            return;
+        }
+
+        List<NotificationInboxEntry> entries = receiverIds.stream()
+                .map(receiverId -> NotificationInboxEntry.builder()
+                        .userId(receiverId)
+                        .notificationId(notification.getId())
+                        .taskId(notification.getTaskId())
+                        .status(NotificationStatus.NEW)
+                        .createdAt(notification.getCreatedAt())
+                        .build())
+                .toList();
+
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationInboxEntry.class)
+                .insert(entries)
+                .execute();
+    }
+
+    /**
+     * Keyset page of a user's inbox entries in one status, newest first.
+     * Equality on user_id/status plus the (created_at, _id) range matches inbox_user_status_idx exactly.
+     *
+     * @param after cursor of the last entry of the previous page, or null for the first page
+     */
+    public List<NotificationInboxEntry> findInboxPage(String userId, NotificationStatus status, PageCursor after, int limit) {
+        Criteria criteria = Criteria.where("user_id").is(userId).and("status").is(status);
+
+        if (after != null) {
+            Instant createdAt = after.sortValueAsInstant();
+            criteria = criteria.orOperator(
+                    Criteria.where("created_at").lt(createdAt),
+                    Criteria.where("created_at").is(createdAt).and("_id").lt(after.id())
+            );
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "created_at").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
+        return mongoTemplate.find(query, NotificationInboxEntry.class);
+    }
+
+    /**
+     * Moves the user's entries for the given notifications to the target status.
+     *
+     * @return how many of them were NEW before, i.e. how much the unread counter drops
+     */
+    public long updateInboxStatus(String userId, List<String> notificationIds, NotificationStatus target) {
+        Criteria owned = Criteria.where("user_id").is(userId).and("notification_id").in(notificationIds);
+        Update update = new Update().set("status", target);
+
+        long wasUnread = mongoTemplate.updateMulti(
+                new Query(Criteria.where("user_id").is(userId).and("notification_id").in(notificationIds)
+                        .and("status").is(NotificationStatus.NEW)),
+                update,
+                NotificationInboxEntry.class
+        ).getModifiedCount();
+
+        // e.g. READ -> ARCHIVED, which leaves the unread count untouched
+        mongoTemplate.updateMulti(
+                new Query(owned.and("status").nin(NotificationStatus.NEW, target)),
+                update,
+                NotificationInboxEntry.class
         );
+        return wasUnread;
+    }
 
-        Query query = new Query(criteria);
+    /**
+     * Adds delta to each user's unread counter, creating missing counters, in one unordered bulk write.
+     */
+    public void incrementUnread(Map<String, Long> deltaByUserId) {
+        if (deltaByUserId.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        deltaByUserId.forEach((userId, delta) ->
+                bulk.upsert(new Query(Criteria.where("_id").is(userId)), new Update().inc("unread", delta)));
+        bulk.execute();
+    }
 
+    /**
+     * Sets each user's unread counter to the number of NEW entries in their inbox.
+     * Used after bulk changes that did not maintain the counters entry by entry.
+     */
+    public void recountUnread(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
 
-        query.with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        Aggregation unreadByUser = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("user_id").in(userIds).and("status").is(NotificationStatus.NEW)),
+                Aggregation.group("user_id").count().as("count")
+        );
+        Map<String, Long> unread = new HashMap<>();
+        userIds.forEach(userId -> unread.put(userId, 0L));
+        mongoTemplate.aggregate(unreadByUser, NotificationInboxEntry.class, Document.class)
+                .forEach(row -> unread.put(String.valueOf(row.get("_id")), ((Number) row.get("count")).longValue()));
 
-        log.info("Mongo Query Object: {}", query);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        unread.forEach((userId, count) ->
+                bulk.upsert(new Query(Criteria.where("_id").is(userId)), new Update().set("unread", count)));
+        bulk.execute();
+    }
 
-        List<Notification> results = mongoTemplate.find(query, Notification.class);
-        log.info("Found {} notifications for user {}", results.size(), receiverId);
+    /**
+     * Streams notifications still in the pre-inbox layout, where the recipients were a user_id array on the body
+     * and the read state was the body's shared status.
+     */
+    public void forEachLegacyBroadcast(Consumer<LegacyBroadcast> consumer) {
+        Query query = new Query(Criteria.where("user_id").exists(true));
+        query.fields().include("_id", "user_id", "task_id", "status", "created_at");
 
-        return results;
+        try (Stream<Document> legacy = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Notification.class))) {
+            legacy.forEach(notification -> {
+                Object createdAt = notification.get("created_at");
+                Object status = notification.get("status");
+                consumer.accept(new LegacyBroadcast(
+                        notification.getObjectId("_id").toHexString(),
+                        notification.getString("task_id"),
+                        notification.getList("user_id", String.class, List.of()),
+                        status != null ? NotificationStatus.valueOf(status.toString()) : NotificationStatus.NEW,
+                        createdAt instanceof Date date ? date.toInstant() : Instant.now()
+                ));
+            });
+        }
     }
 
+    /**
+     * Replaces a legacy notification's recipient array with inbox entries carrying its shared status.
+     * Entries left by an interrupted earlier attempt are replaced, so repeating it for the same notification is safe.
+     * Unread counters are not touched; callers recount the affected users afterwards.
+     */
+    public void moveLegacyRecipientsToInbox(LegacyBroadcast legacy, int batchSize) {
+        mongoTemplate.remove(new Query(Criteria.where("notification_id").is(legacy.notificationId())), NotificationInboxEntry.class);
 
+        List<String> receivers = legacy.receiverIds().stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < receivers.size(); from += batchSize) {
+            List<NotificationInboxEntry> entries = receivers.subList(from, Math.min(from + batchSize, receivers.size())).stream()
+                    .map(receiverId -> NotificationInboxEntry.builder()
+                            .userId(receiverId)
+                            .notificationId(legacy.notificationId())
+                            .taskId(legacy.taskId())
+                            .status(legacy.status())
+                            .createdAt(legacy.createdAt())
+                            .build())
+                    .toList();
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationInboxEntry.class)
+                    .insert(entries)
+                    .execute();
+        }
 
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(legacy.notificationId())),
+                new Update().unset("user_id"),
+                Notification.class
+        );
+    }
+
+    public record LegacyBroadcast(String notificationId, String taskId, List<String> receiverIds,
+                                  NotificationStatus status, Instant createdAt) {
+    }
 
+    public long findUnreadCount(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        return counter != null ? Math.max(counter.getUnread(), 0) : 0;
+    }
+
+    /**
+     * Removes all inbox entries of a task and takes the NEW ones off their owners' unread counters.
+     */
+    public void deleteInboxEntriesByTaskId(String taskId) {
+        Aggregation unreadByUser = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("task_id").is(taskId).and("status").is(NotificationStatus.NEW)),
+                Aggregation.group("user_id").count().as("count")
+        );
+        Map<String, Long> decrements = new HashMap<>();
+        mongoTemplate.aggregate(unreadByUser, NotificationInboxEntry.class, Document.class)
+                .forEach(row -> decrements.put(String.valueOf(row.get("_id")), -((Number) row.get("count")).longValue()));
 
+        mongoTemplate.remove(new Query(Criteria.where("task_id").is(taskId)), NotificationInboxEntry.class);
+        incrementUnread(decrements);
+    }
 }
@@ -1,5 +1,4 @@
 package com.snaptask.server.snaptask_server.repository.notification;
-import com.snaptask.server.snaptask_server.enums.NotificationStatus;
 import com.snaptask.server.snaptask_server.modals.Notification;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -9,7 +8,6 @@ import java.util.List;
 @Repository
 public interface NotificationRepository extends MongoRepository<Notification, String> {
 
-    List<Notification> findByReceiverIdsInAndStatus(List<String> receiverIds, NotificationStatus status);
     List<Notification> findByTaskId(String taskId);
     void deleteAllByTaskId(String taskId);
 
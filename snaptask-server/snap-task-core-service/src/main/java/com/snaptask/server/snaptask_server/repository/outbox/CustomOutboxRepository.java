@@ -0,0 +1,104 @@
+package com.snaptask.server.snaptask_server.repository.outbox;
+
+import com.snaptask.server.snaptask_server.enums.OutboxStatus;
+import com.snaptask.server.snaptask_server.modals.OutboxMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@Slf4j
+public class CustomOutboxRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomOutboxRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public OutboxMessage insert(OutboxMessage message) {
+        return mongoTemplate.insert(message);
+    }
+
+    /**
+     * Leases up to limit due messages to the caller.
+     *
+     * Candidates are read first, then taken with one conditional updateMulti that re-checks they are still free,
+     * so when several dispatchers race for the same messages each one is leased to exactly one of them.
+     *
+     * @param leaseToken unique per claim; later updates must present it
+     */
+    public List<OutboxMessage> claim(String leaseToken, Instant now, Instant leaseUntil, int limit) {
+        Query candidates = new Query(claimable(now))
+                .with(Sort.by(Sort.Direction.ASC, "available_at"))
+                .limit(limit);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, OutboxMessage.class).stream()
+                .map(OutboxMessage::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Query take = new Query(claimable(now).and("_id").in(ids));
+        Update lease = new Update()
+                .set("lease_token", leaseToken)
+                .set("lease_until", leaseUntil);
+        mongoTemplate.updateMulti(take, lease, OutboxMessage.class);
+
+        return mongoTemplate.find(new Query(Criteria.where("lease_token").is(leaseToken)), OutboxMessage.class);
+    }
+
+    /**
+     * Deletes a delivered message, unless its lease was lost to another dispatcher in the meantime.
+     */
+    public void complete(String id, String leaseToken) {
+        mongoTemplate.remove(leased(id, leaseToken), OutboxMessage.class);
+    }
+
+    /**
+     * Releases the lease and makes the message due again at availableAt.
+     */
+    public void retryLater(String id, String leaseToken, int attempts, Instant availableAt, String error) {
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("available_at", availableAt)
+                .set("last_error", error)
+                .unset("lease_token")
+                .unset("lease_until");
+        mongoTemplate.updateFirst(leased(id, leaseToken), update, OutboxMessage.class);
+    }
+
+    /**
+     * Parks a message that will not be retried; it stays in the collection for inspection.
+     */
+    public void markDead(String id, String leaseToken, int attempts, String error) {
+        Update update = new Update()
+                .set("status", OutboxStatus.DEAD)
+                .set("attempts", attempts)
+                .set("last_error", error)
+                .unset("lease_token")
+                .unset("lease_until");
+        mongoTemplate.updateFirst(leased(id, leaseToken), update, OutboxMessage.class);
+    }
+
+    private Criteria claimable(Instant now) {
+        return Criteria.where("status").is(OutboxStatus.PENDING)
+                .and("available_at").lte(now)
+                .orOperator(
+                        Criteria.where("lease_until").is(null),
+                        Criteria.where("lease_until").lt(now)
+                );
+    }
+
+    private Query leased(String id, String leaseToken) {
+        return new Query(Criteria.where("_id").is(id).and("lease_token").is(leaseToken));
+    }
+}
@@ -0,0 +1,66 @@
+package com.snaptask.server.snaptask_server.repository.push;
+
+import com.snaptask.server.snaptask_server.modals.PushTicket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Slf4j
+public class CustomPushTicketRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomPushTicketRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void insertAll(List<PushTicket> tickets) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PushTicket.class)
+                .insert(tickets)
+                .execute();
+    }
+
+    /**
+     * Tickets due for a receipt check, longest overdue first.
+     */
+    public List<PushTicket> findDue(Instant now, int limit) {
+        Query query = new Query(Criteria.where("check_after").lt(now))
+                .with(Sort.by(Sort.Direction.ASC, "check_after"))
+                .limit(limit);
+        return mongoTemplate.find(query, PushTicket.class);
+    }
+
+    /**
+     * Moves the next receipt check of tickets whose receipts were not ready yet.
+     */
+    public void postpone(Collection<String> ticketIds, Instant checkAfter) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ticketIds)),
+                new Update().set("check_after", checkAfter),
+                PushTicket.class
+        );
+    }
+
+    public void deleteByTicketIds(Collection<String> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(ticketIds)), PushTicket.class);
+    }
+}
@@ -0,0 +1,466 @@
+package com.snaptask.server.snaptask_server.repository.task;
+
+import com.snaptask.server.snaptask_server.enums.TaskStatus;
+import com.snaptask.server.snaptask_server.enums.WorkMode;
+import com.snaptask.server.snaptask_server.modals.Bid;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.repository.bid.CustomBidRepository;
+import com.snaptask.server.snaptask_server.util.PageCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Repository
+@Slf4j
+public class CustomTaskRepository {
+
+    /**
+     * Fields needed to build a SeekerTaskSummery; everything else (bid ids, completion detail, timeline...) is skipped.
+     */
+    public static final String[] SEEKER_SUMMARY_FIELDS = {
+            "title", "description", "budget", "mode", "deadline", "posted_on", "bids_count", "category", "status"
+    };
+
+    /**
+     * Task fields shown on the poster's task detail screen.
+     */
+    public static final String[] POSTER_DETAIL_FIELDS = {
+            "title", "description", "category", "budget", "deadline", "status", "poster_id", "assigned_bid_id", "completion_detail"
+    };
+
+    /**
+     * Fields needed to build a PosterTaskSummaryDto.
+     */
+    public static final String[] POSTER_SUMMARY_FIELDS = {
+            "title", "description", "budget", "deadline", "bids_count", "status", "category", "posted_on"
+    };
+
+    /**
+     * Status groups shown on the poster dashboard.
+     */
+    public static final List<TaskStatus> POSTER_DASHBOARD_STATUSES = List.of(TaskStatus.ACTIVE, TaskStatus.PENDING, TaskStatus.COMPLETED);
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomTaskRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Attaches a bid to a task with one atomic update ($inc bids_count, $push bid_ids),
+     * guarded so it only applies while the task is ACTIVE and unassigned.
+     *
+     * @return the updated task (fields needed for the bid notification only), or null if the task is missing or closed
+     */
+    public Task addBid(String taskId, String bidId) {
+        Query query = new Query(Criteria.where("_id").is(taskId)
+                .and("status").is(TaskStatus.ACTIVE)
+                .and("is_assigned").is(false));
+        query.fields().include("title", "poster_id", "budget", "deadline", "bids_count");
+
+        Update update = new Update()
+                .inc("bids_count", 1)
+                .push("bid_ids", bidId)
+                .set("updated_at", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Task.class);
+    }
+
+    /**
+     * Removes a bid from a task's bid_ids and bids_count. Guarded on the id still being listed, so repeating it is a no-op.
+     */
+    public void detachBid(String taskId, String bidId) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(taskId).and("bid_ids").is(bidId)),
+                new Update().pull("bid_ids", bidId).inc("bids_count", -1),
+                Task.class
+        );
+    }
+
+    /**
+     * Posters of ONSITE tasks created before tasks carried a location.
+     */
+    public List<String> findPosterIdsOfOnsiteTasksWithoutLocation() {
+        return mongoTemplate.findDistinct(onsiteWithoutLocation(), "poster_id", Task.class, String.class);
+    }
+
+    /**
+     * Gives a poster's ONSITE tasks that have no location the given one; tasks that already have one are untouched.
+     */
+    public long setMissingOnsiteLocation(String posterId, GeoJsonPoint location) {
+        Query query = onsiteWithoutLocation();
+        query.addCriteria(Criteria.where("poster_id").is(posterId));
+        return mongoTemplate.updateMulti(query, new Update().set("location", location), Task.class).getModifiedCount();
+    }
+
+    private static Query onsiteWithoutLocation() {
+        return new Query(Criteria.where("mode").is(WorkMode.ONSITE).and("location").is(null));
+    }
+
+    /**
+     * Assigns a task to the seeker of an accepted bid with one conditional update.
+     * Applies only while the task is still unassigned and owned by the poster, so racing accepts assign it once.
+     *
+     * @return the assigned task (fields needed for the acceptance notification only), or null if the guard did not match
+     */
+    public Task assignBid(String taskId, String posterId, String bidId, String seekerId) {
+        Query query = new Query(Criteria.where("_id").is(taskId)
+                .and("poster_id").is(posterId)
+                .and("is_assigned").is(false));
+        query.fields().include("title", "poster_id", "budget", "deadline");
+
+        Update update = new Update()
+                .set("assigned_seeker_id", seekerId)
+                .set("assigned_bid_id", bidId)
+                .set("is_assigned", true)
+                .set("status", TaskStatus.PENDING)
+                .set("updated_at", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Task.class);
+    }
+
+    /**
+     * Keyset page of open (ACTIVE, unassigned) tasks in a category, newest first; the same set OpenTaskIndex holds.
+     * Served by the {category, is_assigned, status, posted_on, _id} index, so each page is a bounded index range scan.
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     * @param limit maximum number of tasks to return
+     */
+    public List<Task> findOpenTasksByCategory(String category, PageCursor after, int limit) {
+        Criteria criteria = Criteria.where("category").is(category)
+                .and("is_assigned").is(false)
+                .and("status").is(TaskStatus.ACTIVE);
+
+        if (after != null) {
+            LocalDateTime postedOn = after.sortValueAsDateTime();
+            criteria = criteria.orOperator(
+                    Criteria.where("posted_on").lt(postedOn),
+                    Criteria.where("posted_on").is(postedOn).and("_id").lt(after.id())
+            );
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "posted_on").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
+        query.fields().include(SEEKER_SUMMARY_FIELDS);
+
+        List<Task> tasks = mongoTemplate.find(query, Task.class);
+        log.debug("Open tasks page for category={} after={} returned {} tasks", category, after, tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Keyset page of open tasks near a point, nearest first, via $geoNear on the location 2dsphere index.
+     * Pages continue from the last row's distance: minDistance skips everything closer and the cursor's id breaks ties.
+     *
+     * @param category optional category filter
+     * @param box optional map viewport as {minLng, minLat, maxLng, maxLat}
+     * @param after cursor of the last task of the previous page (distance in meters, id), or null for the first page
+     */
+    public List<NearbyTask> findNearbyOpenTasks(double latitude, double longitude, double radiusKm, String category,
+                                                double[] box, PageCursor after, int limit) {
+        Document filter = new Document("is_assigned", false).append("status", TaskStatus.ACTIVE.name());
+        if (category != null) {
+            filter.append("category", category);
+        }
+        if (box != null) {
+            List<List<Double>> ring = List.of(
+                    List.of(box[0], box[1]), List.of(box[2], box[1]), List.of(box[2], box[3]),
+                    List.of(box[0], box[3]), List.of(box[0], box[1])
+            );
+            filter.append("location", new Document("$geoWithin", new Document("$geometry",
+                    new Document("type", "Polygon").append("coordinates", List.of(ring)))));
+        }
+
+        Document geoNear = new Document("near", new Document("type", "Point").append("coordinates", List.of(longitude, latitude)))
+                .append("key", "location")
+                .append("distanceField", "distance")
+                .append("spherical", true)
+                .append("maxDistance", radiusKm * 1000)
+                .append("query", filter);
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(context -> new Document("$geoNear", geoNear));
+        if (after != null) {
+            double distance = after.sortValueAsDouble();
+            geoNear.append("minDistance", distance);
+            stages.add(context -> new Document("$match", new Document("$or", List.of(
+                    new Document("distance", new Document("$gt", distance)),
+                    new Document("distance", distance).append("_id", new Document("$gt", new ObjectId(after.id())))
+            ))));
+        }
+
+        Document fields = new Document("distance", 1);
+        Arrays.stream(SEEKER_SUMMARY_FIELDS).forEach(field -> fields.append(field, 1));
+        stages.add(context -> new Document("$sort", new Document("distance", 1).append("_id", 1)));
+        stages.add(context -> new Document("$limit", limit));
+        stages.add(context -> new Document("$project", fields));
+
+        List<NearbyTask> tasks = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(stages), Task.class, Document.class)) {
+            tasks.add(new NearbyTask(
+                    mongoTemplate.getConverter().read(Task.class, row),
+                    ((Number) row.get("distance")).doubleValue()
+            ));
+        }
+        log.debug("Nearby tasks within {} km of ({}, {}) after={} returned {} tasks", radiusKm, latitude, longitude, after, tasks.size());
+        return tasks;
+    }
+
+    public record NearbyTask(Task task, double distanceMeters) {
+    }
+
+    /**
+     * Keyset page of tasks matching a keyword search, most relevant first, via the weighted text index.
+     * Relevance is the text score; pages continue after the previous page's last (score, id).
+     *
+     * @param mode optional work mode filter
+     * @param after cursor of the last task of the previous page (text score, id), or null for the first page
+     */
+    public List<ScoredTask> searchTasks(String text, TaskStatus status, WorkMode mode, PageCursor after, int limit) {
+        Document filter = new Document("$text", new Document("$search", text)).append("status", status.name());
+        if (mode != null) {
+            filter.append("mode", mode.name());
+        }
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(context -> new Document("$match", filter));
+        stages.add(context -> new Document("$addFields", new Document("score", new Document("$meta", "textScore"))));
+        if (after != null) {
+            double score = after.sortValueAsDouble();
+            stages.add(context -> new Document("$match", new Document("$or", List.of(
+                    new Document("score", new Document("$lt", score)),
+                    new Document("score", score).append("_id", new Document("$gt", new ObjectId(after.id())))
+            ))));
+        }
+
+        Document fields = new Document("score", 1);
+        Arrays.stream(SEEKER_SUMMARY_FIELDS).forEach(field -> fields.append(field, 1));
+        stages.add(context -> new Document("$sort", new Document("score", -1).append("_id", 1)));
+        stages.add(context -> new Document("$limit", limit));
+        stages.add(context -> new Document("$project", fields));
+
+        List<ScoredTask> tasks = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(stages), Task.class, Document.class)) {
+            tasks.add(new ScoredTask(
+                    mongoTemplate.getConverter().read(Task.class, row),
+                    ((Number) row.get("score")).doubleValue()
+            ));
+        }
+        log.debug("Task search text={} status={} mode={} after={} returned {} tasks", text, status, mode, after, tasks.size());
+        return tasks;
+    }
+
+    public record ScoredTask(Task task, double score) {
+    }
+
+    /**
+     * Streams open tasks that are candidates for a seeker's ranked feed: tasks in any of the categories, plus tasks located
+     * within radiusKm of the seeker when a location is given. Rows are handed to the consumer as the cursor yields them,
+     * so callers that keep only a bounded top-K never hold the whole candidate set.
+     * When more than limit tasks match, the newest are kept (posted_on, then _id, descending), so the capped set does not
+     * depend on the order the server happens to scan in and is the same for every page.
+     *
+     * @param limit safety cap on the number of candidates read
+     * @return number of candidates streamed
+     */
+    public long streamOpenTaskCandidates(Collection<String> categories, GeoJsonPoint near, double radiusKm, int limit,
+                                         Consumer<Task> consumer) {
+        List<Criteria> sources = new ArrayList<>();
+        if (!categories.isEmpty()) {
+            sources.add(Criteria.where("category").in(categories));
+        }
+        if (near != null) {
+            sources.add(Criteria.where("location").withinSphere(new Circle(
+                    new Point(near.getX(), near.getY()),
+                    new Distance(radiusKm, Metrics.KILOMETERS)
+            )));
+        }
+        if (sources.isEmpty()) {
+            return 0;
+        }
+
+        Criteria criteria = Criteria.where("is_assigned").is(false)
+                .and("status").is(TaskStatus.ACTIVE)
+                .orOperator(sources.toArray(Criteria[]::new));
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "posted_on").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit)
+                .cursorBatchSize(500);
+        query.fields().include(SEEKER_SUMMARY_FIELDS).include("location");
+
+        long total = 0;
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            for (Task task : (Iterable<Task>) tasks::iterator) {
+                consumer.accept(task);
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Poster task detail in one round trip: the task, its newest bids and the assigned bid, joined with $lookup.
+     * Both lookups are sub-pipelines projected to {@link CustomBidRepository#POSTER_SUMMARY_FIELDS}, and the bid list is capped.
+     *
+     * @return null if the task does not exist
+     */
+    public PosterTaskDetail findPosterTaskDetail(String taskId, int bidLimit) {
+        Document bidFields = new Document();
+        Arrays.stream(CustomBidRepository.POSTER_SUMMARY_FIELDS).forEach(field -> bidFields.append(field, 1));
+
+        Document taskFields = new Document();
+        Arrays.stream(POSTER_DETAIL_FIELDS).forEach(field -> taskFields.append(field, 1));
+
+        // bids reference tasks by the string form of the task id
+        AggregationOperation lookupBids = context -> new Document("$lookup", new Document("from", "bids")
+                .append("let", new Document("taskId", new Document("$toString", "$_id")))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr", new Document("$eq", List.of("$task_id", "$$taskId")))),
+                        new Document("$sort", new Document("created_at", -1).append("_id", -1)),
+                        new Document("$limit", bidLimit),
+                        new Document("$project", bidFields)
+                ))
+                .append("as", "bids"));
+
+        AggregationOperation lookupAssignedBid = context -> new Document("$lookup", new Document("from", "bids")
+                .append("let", new Document("bidId", new Document("$convert", new Document("input", "$assigned_bid_id")
+                        .append("to", "objectId")
+                        .append("onError", null)
+                        .append("onNull", null))))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr", new Document("$eq", List.of("$_id", "$$bidId")))),
+                        new Document("$project", bidFields)
+                ))
+                .append("as", "assigned_bid"));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").is(taskId)),
+                context -> new Document("$project", taskFields),
+                lookupBids,
+                lookupAssignedBid
+        );
+
+        Document row = mongoTemplate.aggregate(aggregation, Task.class, Document.class).getUniqueMappedResult();
+        if (row == null) {
+            return null;
+        }
+
+        Task task = mongoTemplate.getConverter().read(Task.class, row);
+        List<Bid> bids = new ArrayList<>();
+        for (Document bid : row.getList("bids", Document.class, List.of())) {
+            bids.add(mongoTemplate.getConverter().read(Bid.class, bid));
+        }
+        List<Document> assigned = row.getList("assigned_bid", Document.class, List.of());
+        Bid assignedBid = assigned.isEmpty() ? null : mongoTemplate.getConverter().read(Bid.class, assigned.get(0));
+
+        return new PosterTaskDetail(task, bids, assignedBid);
+    }
+
+    /**
+     * The task part of the poster detail only, for callers that load the bids separately.
+     */
+    public Task findPosterTaskFields(String taskId) {
+        Query query = new Query(Criteria.where("_id").is(taskId));
+        query.fields().include(POSTER_DETAIL_FIELDS);
+        return mongoTemplate.findOne(query, Task.class);
+    }
+
+    public record PosterTaskDetail(Task task, List<Bid> bids, Bid assignedBid) {
+    }
+
+    /**
+     * Poster dashboard in one aggregation: a $match on poster_id (served by the poster_id/status index) feeding a $facet
+     * that counts tasks per status and returns the newest page of each dashboard group, projected to the summary fields.
+     */
+    public PosterDashboard findPosterDashboard(String posterId, int pageSize) {
+        Document summaryFields = new Document();
+        Arrays.stream(POSTER_SUMMARY_FIELDS).forEach(field -> summaryFields.append(field, 1));
+
+        Document facets = new Document("counts", List.of(
+                new Document("$group", new Document("_id", "$status").append("count", new Document("$sum", 1)))
+        ));
+        for (TaskStatus status : POSTER_DASHBOARD_STATUSES) {
+            facets.append(status.name(), List.of(
+                    new Document("$match", new Document("status", status.name())),
+                    new Document("$sort", new Document("posted_on", -1).append("_id", -1)),
+                    new Document("$limit", pageSize)
+            ));
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("poster_id").is(posterId)),
+                context -> new Document("$project", summaryFields),
+                context -> new Document("$facet", facets)
+        );
+
+        Document row = mongoTemplate.aggregate(aggregation, Task.class, Document.class).getUniqueMappedResult();
+
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, List<Task>> firstPages = new EnumMap<>(TaskStatus.class);
+        if (row == null) {
+            return new PosterDashboard(counts, firstPages);
+        }
+        for (Document count : row.getList("counts", Document.class, List.of())) {
+            Object status = count.get("_id");
+            if (status != null) {
+                counts.put(TaskStatus.valueOf(status.toString()), ((Number) count.get("count")).longValue());
+            }
+        }
+        for (TaskStatus status : POSTER_DASHBOARD_STATUSES) {
+            List<Task> tasks = new ArrayList<>();
+            for (Document task : row.getList(status.name(), Document.class, List.of())) {
+                tasks.add(mongoTemplate.getConverter().read(Task.class, task));
+            }
+            firstPages.put(status, tasks);
+        }
+        return new PosterDashboard(counts, firstPages);
+    }
+
+    /**
+     * Keyset page of a poster's tasks in one status, newest first.
+     * Served by the {poster_id, status, posted_on, _id} index, so each page is a bounded index range scan.
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     */
+    public List<Task> findPosterTasksByStatus(String posterId, TaskStatus status, PageCursor after, int limit) {
+        Criteria criteria = Criteria.where("poster_id").is(posterId)
+                .and("status").is(status);
+
+        if (after != null) {
+            LocalDateTime postedOn = after.sortValueAsDateTime();
+            criteria = criteria.orOperator(
+                    Criteria.where("posted_on").lt(postedOn),
+                    Criteria.where("posted_on").is(postedOn).and("_id").lt(after.id())
+            );
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "posted_on").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit);
+        query.fields().include(POSTER_SUMMARY_FIELDS);
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    public record PosterDashboard(Map<TaskStatus, Long> counts, Map<TaskStatus, List<Task>> firstPages) {
+    }
+}
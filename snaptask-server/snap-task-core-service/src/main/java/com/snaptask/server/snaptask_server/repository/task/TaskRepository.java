@@ -10,8 +10,6 @@ import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends MongoRepository<Task,String> {
-    List<Task> findByPosterId(String posterId);
-    List<Task> findByCategoryAndIsAssignedFalse(String category);
     List<Task> findByAssignedSeekerIdAndIsAssignedTrueAndStatus(
             String assignedSeekerId, TaskStatus status);
 
@@ -0,0 +1,97 @@
+package com.snaptask.server.snaptask_server.repository.user;
+
+import com.snaptask.server.snaptask_server.modals.User;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Repository
+@Slf4j
+public class CustomUserRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomUserRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Streams the ids of users matching the criteria, handing them to the consumer in chunks of at most chunkSize.
+     * Only _id is read from the cursor, so memory use is bounded by the chunk size regardless of how many users match.
+     *
+     * @return total number of users streamed
+     */
+    public long streamUserIds(Criteria criteria, int chunkSize, Consumer<List<String>> chunkConsumer) {
+        Query query = new Query(criteria).cursorBatchSize(chunkSize);
+        query.fields().include("_id");
+
+        long total = 0;
+        List<String> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                chunk.add(idOf(user));
+                if (chunk.size() >= chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    total += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+            total += chunk.size();
+        }
+
+        log.debug("Streamed {} user ids in chunks of {}", total, chunkSize);
+        return total;
+    }
+
+    /**
+     * Streams (user id, token) of every user still carrying the legacy single fcmToken field.
+     */
+    public void forEachLegacyPushToken(BiConsumer<String, String> consumer) {
+        Query query = new Query(Criteria.where("fcmToken").exists(true).ne(null));
+        query.fields().include("_id", "fcmToken");
+        try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            users.forEach(user -> consumer.accept(idOf(user), user.getString("fcmToken")));
+        }
+    }
+
+    public long unsetLegacyPushTokens() {
+        return mongoTemplate.updateMulti(
+                new Query(Criteria.where("fcmToken").exists(true)),
+                new Update().unset("fcmToken"),
+                User.class
+        ).getModifiedCount();
+    }
+
+    /**
+     * Saved locations of the given users, by user id; users without one are left out.
+     */
+    public Map<String, GeoJsonPoint> findGeoLocations(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(Criteria.where("_id").in(userIds).and("geo_location").ne(null));
+        query.fields().include("geo_location");
+        Map<String, GeoJsonPoint> locations = new HashMap<>();
+        mongoTemplate.find(query, User.class).forEach(user -> locations.put(user.getId(), user.getGeoJsonPoint()));
+        return locations;
+    }
+
+    private static String idOf(Document user) {
+        Object id = user.get("_id");
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
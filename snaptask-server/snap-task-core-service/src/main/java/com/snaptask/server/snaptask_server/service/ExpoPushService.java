@@ -1,153 +1,132 @@
 package com.snaptask.server.snaptask_server.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snaptask.server.snaptask_server.service.push.ExpoPushClient;
+import com.snaptask.server.snaptask_server.service.push.PushReceiptService;
+import com.snaptask.server.snaptask_server.service.push.PushRetryScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ExpoPushService {
 
     private static final Logger log = LoggerFactory.getLogger(ExpoPushService.class);
-    private static final String EXPO_PUSH_URL = "https://exp.host/--/api/v2/push/send";
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    public ExpoPushService() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+    private final ExpoPushClient expoPushClient;
+    private final PushRetryScheduler pushRetryScheduler;
+    private final PushReceiptService pushReceiptService;
+
+    public ExpoPushService(
+            ExpoPushClient expoPushClient,
+            PushRetryScheduler pushRetryScheduler,
+            PushReceiptService pushReceiptService
+    ) {
+        this.expoPushClient = expoPushClient;
+        this.pushRetryScheduler = pushRetryScheduler;
+        this.pushReceiptService = pushReceiptService;
     }
 
-    @Async
-    public void sendBatchNotifications(List<String> expoTokens, String title, String body, Map<String, Object> data) {
+    /**
+     * Sends one batch (Expo accepts up to 100 messages per request) without blocking on the response.
+     * Transport failures are retried through {@link PushRetryScheduler}. The returned future completes once Expo
+     * has answered or retries are exhausted; per-message errors are logged, not thrown.
+     */
+    public CompletableFuture<Void> sendBatch(List<String> expoTokens, String title, String body, Map<String, Object> data) {
         if (expoTokens == null || expoTokens.isEmpty()) {
             log.warn("No Expo tokens provided for notification");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        try {
-            List<Map<String, Object>> messages = expoTokens.stream()
-                    .map(token -> Map.of(
-                            "to", token,
-                            "sound", "default",
-                            "title", title,
-                            "body", body,
-                            "data", data
-                    ))
-                    .toList();
-
-            String response = restTemplate.postForObject(EXPO_PUSH_URL, messages, String.class);
-            log.info("✅ Sent {} Expo notifications. Response: {}", messages.size(), response);
-
-            if (response != null && response.contains("error")) {
-                log.warn("Expo returned error: {}", response);
-            }
+        List<Map<String, Object>> messages = expoTokens.stream()
+                .map(token -> message(token, title, body, data))
+                .toList();
+
+        return pushRetryScheduler.withRetry("Expo batch of " + messages.size(), () -> expoPushClient.send(messages))
+                .thenAccept(response -> handleTickets(expoTokens, response))
+                .exceptionally(e -> {
+                    log.error("❌ Failed to send Expo notifications: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Sends one batch with a single attempt. Unlike {@link #sendBatch} the returned future fails on transport errors
+     * ({@link com.snaptask.server.snaptask_server.exceptions.customExceptions.PushDeliveryException}), so a caller
+     * with durable retries, like the outbox dispatcher, can decide what happens next.
+     */
+    public CompletableFuture<Void> deliverBatch(List<String> expoTokens, String title, String body, Map<String, Object> data) {
+        if (expoTokens == null || expoTokens.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Failed to send Expo notifications", e);
+        List<Map<String, Object>> messages = expoTokens.stream()
+                .map(token -> message(token, title, body, data))
+                .toList();
+        return expoPushClient.send(messages).thenAccept(response -> handleTickets(expoTokens, response));
+    }
+
+    private void handleTickets(List<String> expoTokens, JsonNode response) {
+        log.info("✅ Sent {} Expo notifications", expoTokens.size());
+        pushReceiptService.recordTickets(expoTokens, response);
+        JsonNode tickets = response.path("data");
+        for (int i = 0; i < tickets.size() && i < expoTokens.size(); i++) {
+            JsonNode ticket = tickets.get(i);
+            if ("error".equalsIgnoreCase(ticket.path("status").asText())) {
+                log.warn("Expo returned error for token {}: {}", expoTokens.get(i), ticket.path("message").asText());
+            }
         }
     }
 
     /**
      * Send a single Expo push notification to one device token.
-     * This method is synchronous and returns true if Expo accepted the message.
-     *
-     * Caller can run this in background or rely on a higher-level @Async method.
+     * Returns immediately; failed attempts are retried from the retry scheduler's delay queue.
      *
      * @param expoToken Expo push token (ExponentPushToken[...])
      * @param title     notification title
      * @param body      notification body
      * @param data      custom data payload (may be null)
-     * @return true if successfully sent/accepted by Expo, false otherwise
      */
-    @Async
     public void sendNotification(String expoToken, String title, String body, Map<String, Object> data) {
         if (expoToken == null || expoToken.isBlank()) {
             log.warn("sendNotification called with null/blank token");
             return;
         }
 
-        Map<String, Object> message = Map.of(
-                "to", expoToken,
-                "sound", "default",
-                "title", title,
-                "body", body,
-                "data", data != null ? data : Map.of()
-        );
-
-        int maxRetries = 3;
-        long backoffMillis = 500;
-
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                ResponseEntity<String> response = restTemplate.postForEntity(EXPO_PUSH_URL, message, String.class);
-                String responseBody = response.getBody();
-                log.debug("Expo push response (attempt {}): status={}, body={}", attempt, response.getStatusCode(), responseBody);
+        Map<String, Object> message = message(expoToken, title, body, data);
 
-                if (response.getStatusCode().is2xxSuccessful() && responseBody != null && !responseBody.isBlank()) {
-                    JsonNode root = objectMapper.readTree(responseBody);
-                    JsonNode entry = root.isArray() ? root.get(0) : root;
+        pushRetryScheduler.withRetry("Expo push to " + expoToken, () -> expoPushClient.send(List.of(message)))
+                .whenComplete((root, error) -> {
+                    if (error != null) {
+                        log.error("Failed to send Expo notification to token {}: {}", expoToken, error.getMessage());
+                        return;
+                    }
+                    log.debug("Expo push response: {}", root);
+                    pushReceiptService.recordTickets(List.of(expoToken), root);
 
-                    if (entry == null) {
+                    JsonNode entry = root.path("data").isArray() ? root.path("data").get(0) : root.path("data");
+                    if (entry == null || entry.isMissingNode()) {
                         log.warn("Unexpected empty response from Expo for token {}", expoToken);
+                    } else if ("error".equalsIgnoreCase(entry.path("status").asText())) {
+                        String err = entry.path("message").asText(entry.path("details").toString());
+                        log.warn("Expo returned error for token {}: {}", expoToken, err);
                     } else {
-                        if ((entry.has("status") && "ok".equalsIgnoreCase(entry.get("status").asText())) ||
-                                (entry.has("data") && entry.get("data").has("status") &&
-                                        "ok".equalsIgnoreCase(entry.get("data").get("status").asText())) ||
-                                (entry.has("data") && entry.get("data").has("id"))) {
-
-                            log.info("Expo accepted message for token {} (id: {})",
-                                    expoToken,
-                                    entry.path("data").path("id").asText("unknown"));
-                            return;
-                        }
-
-                        if (entry.has("status") && "error".equalsIgnoreCase(entry.get("status").asText())) {
-                            String err = entry.path("message").asText(entry.path("details").toString());
-                            log.warn("Expo returned error for token {}: {}", expoToken, err);
-                            if (err.toLowerCase().contains("device_not_registered") ||
-                                    err.toLowerCase().contains("invalid")) {
-                                log.warn("Invalid or expired Expo token: {}", expoToken);
-                            }
-                            return;
-                        }
-
-                        log.info("Expo push response ambiguous but 2xx - treating as success for token {}", expoToken);
-                        return;
+                        log.info("Expo accepted message for token {} (id: {})", expoToken, entry.path("id").asText("unknown"));
                     }
-                } else {
-                    log.warn("Non-2xx response from Expo (attempt {}): status={}, body={}",
-                            attempt, response.getStatusCode(), responseBody);
-                }
-            } catch (Exception ex) {
-                log.warn("Error sending notification to Expo (attempt {}): {}", attempt, ex.getMessage());
-            }
-
-            if (attempt < maxRetries) {
-                try {
-                    Thread.sleep(backoffMillis);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    log.error("Interrupted while backing off retries", ie);
-                    return;
-                }
-                backoffMillis *= 2;
-            }
-        }
-
-        log.error("Failed to send Expo notification to token {} after {} attempts", expoToken, maxRetries);
+                });
     }
 
-
-
+    private static Map<String, Object> message(String token, String title, String body, Map<String, Object> data) {
+        return Map.of(
+                "to", token,
+                "sound", "default",
+                "title", title,
+                "body", body,
+                "data", data != null ? data : Map.of()
+        );
+    }
 }
-
@@ -7,6 +7,7 @@ import com.snaptask.server.snaptask_server.modals.User;
 import com.snaptask.server.snaptask_server.repository.RoleRepository;
 import com.snaptask.server.snaptask_server.repository.user.UserRepository;
 import com.snaptask.server.snaptask_server.service.email.NotificationEmailService;
+import com.snaptask.server.snaptask_server.service.user.SeekerMatchIndex;
 import com.snaptask.server.snaptask_server.util.Helper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -42,6 +43,8 @@ public class AuthenticationService {
 
     private final RoleRepository roleRepository;
 
+    private final SeekerMatchIndex seekerMatchIndex;
+
     public AuthenticationService(
             UserRepository userRepository,
             AuthenticationManager authenticationManager,
@@ -49,7 +52,8 @@ public class AuthenticationService {
             NotificationEmailService notificationEmailService,
             Helper helper,
             JwtService jwtService,
-            RoleRepository roleRepository
+            RoleRepository roleRepository,
+            SeekerMatchIndex seekerMatchIndex
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
@@ -58,6 +62,7 @@ public class AuthenticationService {
         this.helper = helper;
         this.jwtService = jwtService;
         this.roleRepository = roleRepository;
+        this.seekerMatchIndex = seekerMatchIndex;
     }
 
     public ResponseEntity<?> signUp(RegisterUserDto dto) {
@@ -106,6 +111,7 @@ public class AuthenticationService {
                 .build();
 
         userRepository.save(user);
+        seekerMatchIndex.apply(user);
 
         notificationEmailService.sendNotificationEmail(
                 dto.getEmail(),
@@ -139,8 +145,10 @@ public class AuthenticationService {
                 ));
             }
             Map<String,Object> extractClaims = new HashMap<>();
-            extractClaims.put("id", user.getId());
+            extractClaims.put(TokenPrincipal.CLAIM_ID, user.getId());
             extractClaims.put("userName",user.getName());
+            extractClaims.put(TokenPrincipal.CLAIM_ROLE, user.getRole().name());
+            extractClaims.put(TokenPrincipal.CLAIM_TOKEN_VERSION, user.getTokenVersion());
 
             String token = jwtService.generateToken(extractClaims,user);
             long expiry = jwtService.getExpirationTime();
@@ -389,6 +397,8 @@ public class AuthenticationService {
         user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
         user.setVerificationCode(null);
         user.setVerificationCodeExpireTime(null);
+        // revoke sessions opened with the old password
+        user.setTokenVersion(user.getTokenVersion() + 1);
 
         userRepository.save(user);
         log.info("Password successfully reset for {}", dto.getEmail());
@@ -1,5 +1,8 @@
 package com.snaptask.server.snaptask_server.service.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.snaptask.server.snaptask_server.exceptions.customExceptions.JwtExpiredException;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -9,9 +12,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -27,6 +37,39 @@ public class JwtService {
 
     private final AtomicReference<Key> cachedKey = new AtomicReference<>();
 
+    // JwtParser is immutable and thread-safe, so one instance is shared by all requests
+    private final AtomicReference<JwtParser> cachedParser = new AtomicReference<>();
+
+    /**
+     * Claims of tokens whose signature has already been verified, keyed by the token's SHA-256 hash.
+     * Each entry expires together with the token, so repeat requests from the same session skip the HMAC check.
+     * Entries hold an unmodifiable copy; every caller gets its own Claims built from it, since Claims is mutable.
+     */
+    private final Cache<String, VerifiedClaims> verifiedTokens;
+
+    public JwtService(@Value("${security.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+                        long millisLeft = claims.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     private Key getSignInKey() {
         if (cachedKey.get() == null) {
             byte[] keyBytes = Decoders.BASE64.decode(secretKey);
@@ -35,23 +78,54 @@ public class JwtService {
         return cachedKey.get();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    private JwtParser getParser() {
+        if (cachedParser.get() == null) {
+            cachedParser.set(Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build());
+        }
+        return cachedParser.get();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
+    /**
+     * Verifies the token once and returns its claims.
+     * Already verified tokens are served from the cache until they expire.
+     */
+    public Claims verifyToken(String token) {
+        String cacheKey = hashToken(token);
+        VerifiedClaims cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            Claims claims = Jwts.claims(cached.values());
+            if (cached.expiresAtMillis() < System.currentTimeMillis()) {
+                verifiedTokens.invalidate(cacheKey);
+                throw new JwtExpiredException("JWT token expired for user: " + claims.getSubject());
+            }
+            return claims;
+        }
+
         try {
-            final Claims claims = extractAllClaims(token);
-            return resolver.apply(claims);
+            Claims claims = extractAllClaims(token);
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(cacheKey, new VerifiedClaims(Collections.unmodifiableMap(new LinkedHashMap<>(claims)), claims.getExpiration().getTime()));
+            }
+            return claims;
         } catch (ExpiredJwtException e) {
             log.warn("JWT expired: {}", e.getMessage());
             throw new JwtExpiredException(e.getMessage());
-        } catch (JwtException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             log.warn("Invalid JWT: {}", e.getMessage());
             throw new JwtException("Invalid JWT token", e);
         }
     }
 
+    public String extractUsername(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
+    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
+        return resolver.apply(verifyToken(token));
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
@@ -67,49 +141,46 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        try {
-            String username = extractUsername(token);
-
-            if (!username.equals(userDetails.getUsername())) {
-                log.warn("Token username mismatch: expected {}, got {}", userDetails.getUsername(), username);
-                return false;
-            }
+        return isTokenValid(verifyToken(token), userDetails);
+    }
 
-            if (isTokenExpired(token)) {
-                throw new JwtExpiredException("JWT token expired for user: " + username);
-            }
+    /**
+     * Checks already verified claims against the loaded user, without parsing the token again.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
 
-            return true;
+        if (username == null || !username.equals(userDetails.getUsername())) {
+            log.warn("Token username mismatch: expected {}, got {}", userDetails.getUsername(), username);
+            return false;
         }
-        catch (ExpiredJwtException e) {
-            throw new JwtExpiredException("JWT token expired: " + e.getMessage());
-        }
-        catch (JwtExpiredException e) {
-            throw e;
-        }
-        catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT: {}", e.getMessage());
-            throw new JwtException("Invalid JWT: " + e.getMessage());
-        }
-    }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+        if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
+            throw new JwtExpiredException("JWT token expired for user: " + username);
+        }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return true;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public long getExpirationTime() {
         return jwtExpiration;
     }
+
+    private record VerifiedClaims(Map<String, Object> values, long expiresAtMillis) {
+    }
 }
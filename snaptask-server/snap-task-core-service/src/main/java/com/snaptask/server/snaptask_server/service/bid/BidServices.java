@@ -5,19 +5,23 @@ import com.snaptask.server.snaptask_server.enums.*;
 import com.snaptask.server.snaptask_server.exceptions.customExceptions.ResourceNotFoundException;
 import com.snaptask.server.snaptask_server.modals.Bid;
 import com.snaptask.server.snaptask_server.modals.Notification;
+import com.snaptask.server.snaptask_server.modals.Task;
 import com.snaptask.server.snaptask_server.modals.User;
 import com.snaptask.server.snaptask_server.repository.bid.BidRepository;
-import com.snaptask.server.snaptask_server.repository.notification.NotificationRepository;
+import com.snaptask.server.snaptask_server.repository.bid.CustomBidRepository;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
 import com.snaptask.server.snaptask_server.repository.task.TaskRepository;
 import com.snaptask.server.snaptask_server.repository.user.UserRepository;
-import com.snaptask.server.snaptask_server.service.ExpoPushService;
 import com.snaptask.server.snaptask_server.service.FirebaseService;
+import com.snaptask.server.snaptask_server.service.notification.NotificationPublisher;
+import com.snaptask.server.snaptask_server.util.Helper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -31,22 +35,30 @@ public class BidServices {
     private final BidRepository bidRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
-    private final ExpoPushService expoPushService;
-    private final NotificationRepository notificationRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final CustomTaskRepository customTaskRepository;
+    private final CustomBidRepository customBidRepository;
+    private final Helper helper;
+    private final TransactionOperations mongoTransactions;
 
     public BidServices(
             BidRepository bidRepository,
             UserRepository userRepository,
             TaskRepository taskRepository,
-            ExpoPushService expoPushService,
-            NotificationRepository notificationRepository
-
+            NotificationPublisher notificationPublisher,
+            CustomTaskRepository customTaskRepository,
+            CustomBidRepository customBidRepository,
+            Helper helper,
+            TransactionOperations mongoTransactions
     ){
         this.bidRepository = bidRepository;
         this.userRepository = userRepository;
         this.taskRepository= taskRepository;
-        this.expoPushService = expoPushService;
-        this.notificationRepository = notificationRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.customTaskRepository = customTaskRepository;
+        this.customBidRepository = customBidRepository;
+        this.helper = helper;
+        this.mongoTransactions = mongoTransactions;
     }
 
     @Transactional(readOnly = true)
@@ -113,98 +125,94 @@ public class BidServices {
         return (value != null && !value.isBlank()) ? value : fallback;
     }
 
-    @Transactional
     public ResponseEntity<?> acceptBid(String bidId) {
         var bid = bidRepository.findById(bidId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found"));
 
-        var task = taskRepository.findById(bid.getTaskId())
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
-
-        if (task.isAssigned()) {
-            return ResponseEntity.badRequest().body(Map.of("message", "Task already assigned"));
+        if (bid.getBidStatus() == BidStatus.REJECTED) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Bid was already rejected"));
         }
 
+        User poster = helper.getCurrentLoggedInUser();
 
-        bid.setBidStatus(BidStatus.ACCEPTED);
-        bid.setUpdatedAt(LocalDateTime.now());
-        bidRepository.save(bid);
-
-        task.setAssignedSeekerId(bid.getSeekerId());
-        task.setAssignedBidId(bid.getId());
-        task.setAssigned(true);
-        task.setStatus(TaskStatus.PENDING);
-        taskRepository.save(task);
-
-
-        List<Bid> otherBids = bidRepository.findByTaskId(task.getId());
-        otherBids.stream()
-                .filter(b -> !b.getId().equals(bid.getId()))
-                .forEach(b -> {
-                    b.setBidStatus(BidStatus.REJECTED);
-                    b.setUpdatedAt(LocalDateTime.now());
-                });
-        bidRepository.saveAll(otherBids);
-
+        // Only the first accept for an unassigned task matches; double taps and racing requests fall through.
+        // With transactions enabled the assignment, the bid updates, the notification and its push commit together.
+        Task task;
+        try {
+            task = mongoTransactions.execute(tx -> {
+                Task assigned = customTaskRepository.assignBid(bid.getTaskId(), poster.getId(), bid.getId(), bid.getSeekerId());
+                if (assigned != null) {
+                    finishAcceptance(bid, poster, assigned);
+                }
+                return assigned;
+            });
+        } catch (RuntimeException e) {
+            // Without transactions the assignment may already have landed; it stands and accepting again finishes the rest
+            Task current = taskRepository.findById(bid.getTaskId()).orElse(null);
+            if (current == null || !bid.getId().equals(current.getAssignedBidId())) {
+                throw e;
+            }
+            log.error("Bid {} assigned to task {} but finishing the acceptance failed: {}", bid.getId(), current.getId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("message", "Task assigned, but updating the other bids or notifying the seeker failed. Accept the bid again to retry."));
+        }
 
-        Optional<User> posterOpt = userRepository.findById(task.getPosterId());
-        Optional<User> seekerOpt = userRepository.findById(bid.getSeekerId());
-        if (posterOpt.isEmpty() || seekerOpt.isEmpty()) {
-            return ResponseEntity.status(404).body(Map.of("message", "Poster or Seeker not found"));
+        if (task == null) {
+            Task current = taskRepository.findById(bid.getTaskId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+            if (!poster.getId().equals(current.getPosterId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "You can only accept bids on your own tasks"));
+            }
+            // A retry after a partially failed accept: the task is this bid's, but the bid was never marked ACCEPTED
+            if (bid.getId().equals(current.getAssignedBidId()) && bid.getBidStatus() != BidStatus.ACCEPTED) {
+                mongoTransactions.executeWithoutResult(tx -> finishAcceptance(bid, poster, current));
+                return ResponseEntity.ok(Map.of("message", "Bid accepted, task assigned, and notifications sent."));
+            }
+            return ResponseEntity.badRequest().body(Map.of("message", "Task already assigned"));
         }
 
-        User poster = posterOpt.get();
-        User seeker = seekerOpt.get();
+        return ResponseEntity.ok(Map.of("message", "Bid accepted, task assigned, and notifications sent."));
+    }
 
+    /**
+     * Everything an accept does after the task is assigned. The bid is marked ACCEPTED last, so a bid that is not
+     * ACCEPTED on an assigned task shows the steps did not all complete; each step is safe to repeat.
+     */
+    private void finishAcceptance(Bid bid, User poster, Task assigned) {
+        customBidRepository.rejectOtherBids(assigned.getId(), bid.getId());
 
         Notification acceptedNotification = Notification.builder()
-                .receiverIds(List.of(seeker.getId()))
                 .senderId(poster.getId())
                 .senderName(poster.getName())
-                .taskId(task.getId())
-                .taskTitle(task.getTitle())
-                .message("Your bid for task \"" + task.getTitle() + "\" has been accepted by " + poster.getName() + ".")
+                .taskId(assigned.getId())
+                .taskTitle(assigned.getTitle())
+                .message("Your bid for task \"" + assigned.getTitle() + "\" has been accepted by " + poster.getName() + ".")
                 .type(NotificationType.BID)
                 .status(NotificationStatus.NEW)
                 .userRole(UserRole.POSTER)
                 .targetRole(UserRole.SEEKER)
                 .posterName(poster.getName())
                 .posterRating(poster.getRating())
-                .budget(task.getBudget().toString())
-                .deadline(task.getDeadline().toString())
+                .budget(assigned.getBudget().toString())
+                .deadline(assigned.getDeadline().toString())
                 .updateInfo("Bid accepted, task assigned")
                 .createdAt(Instant.now())
                 .build();
 
-        try {
-            notificationRepository.save(acceptedNotification);
-        } catch (Exception e) {
-            log.error("Failed to save accepted notification entity: {}", e.getMessage());
-        }
-
-
-        try {
-            if (seeker.getFcmToken() != null && !seeker.getFcmToken().isBlank()) {
-                Map<String, Object> data = Map.of(
+        notificationPublisher.publishWithPush(
+                acceptedNotification,
+                bid.getSeekerId(),
+                "🎉 Your Bid Was Accepted!",
+                "Your bid on \"" + assigned.getTitle() + "\" was accepted by " + poster.getName() + ".",
+                Map.of(
                         "type", "BID_ACCEPTED",
-                        "taskId", task.getId(),
-                        "taskTitle", task.getTitle(),
+                        "taskId", assigned.getId(),
+                        "taskTitle", assigned.getTitle(),
                         "posterName", poster.getName()
-                );
-
-                expoPushService.sendNotification(
-                        seeker.getFcmToken(),
-                        "🎉 Your Bid Was Accepted!",
-                        "Your bid on \"" + task.getTitle() + "\" was accepted by " + poster.getName() + ".",
-                        data
-                );
-            }
-        } catch (Exception e) {
-            log.error("Failed to send Expo notification to seeker: {}", e.getMessage());
-        }
-
+                )
+        );
 
-        return ResponseEntity.ok(Map.of("message", "Bid accepted, task assigned, and notifications sent."));
+        customBidRepository.updateStatus(bid.getId(), BidStatus.ACCEPTED);
     }
 
     @Transactional
@@ -212,6 +220,12 @@ public class BidServices {
         var bid = bidRepository.findById(bidId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found"));
 
+        Task task = taskRepository.findById(bid.getTaskId())
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        if (!helper.getCurrentUserId().equals(task.getPosterId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "You can only reject bids on your own tasks"));
+        }
+
         if (bid.getBidStatus() == BidStatus.REJECTED) {
             return ResponseEntity.badRequest().body(Map.of("message", "Bid already rejected"));
         }
@@ -3,6 +3,7 @@ package com.snaptask.server.snaptask_server.service.email;
 import com.sendgrid.*;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
+import com.snaptask.server.snaptask_server.config.AsyncConfiguration;
 import com.snaptask.server.snaptask_server.enums.EmailNotificationType;
 import com.snaptask.server.snaptask_server.util.Email;
 import jakarta.mail.MessagingException;
@@ -27,7 +28,7 @@ public class NotificationEmailService {
         this.email = email;
     }
 
-    @Async
+    @Async(AsyncConfiguration.EMAIL_EXECUTOR)
     public void sendNotificationEmail(String to, EmailNotificationType type, String dynamicValue) {
         String subject;
         String messageBody;
@@ -0,0 +1,98 @@
+package com.snaptask.server.snaptask_server.service.notification;
+
+import com.snaptask.server.snaptask_server.enums.OutboxStatus;
+import com.snaptask.server.snaptask_server.modals.Notification;
+import com.snaptask.server.snaptask_server.modals.OutboxMessage;
+import com.snaptask.server.snaptask_server.repository.notification.CustomNotificationRepository;
+import com.snaptask.server.snaptask_server.repository.notification.NotificationRepository;
+import com.snaptask.server.snaptask_server.repository.outbox.CustomOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes notifications in the inbox layout: the body is saved once, and every recipient gets a small inbox entry.
+ */
+@Slf4j
+@Service
+public class NotificationPublisher {
+
+    private final NotificationRepository notificationRepository;
+    private final CustomNotificationRepository customNotificationRepository;
+    private final CustomOutboxRepository customOutboxRepository;
+    private final TransactionOperations mongoTransactions;
+
+    public NotificationPublisher(
+            NotificationRepository notificationRepository,
+            CustomNotificationRepository customNotificationRepository,
+            CustomOutboxRepository customOutboxRepository,
+            TransactionOperations mongoTransactions
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.customNotificationRepository = customNotificationRepository;
+        this.customOutboxRepository = customOutboxRepository;
+        this.mongoTransactions = mongoTransactions;
+    }
+
+    /**
+     * Saves the notification body and delivers it to the given recipients.
+     */
+    public Notification publish(Notification notification, List<String> receiverIds) {
+        Notification saved = notificationRepository.save(notification);
+        deliver(saved, receiverIds);
+        return saved;
+    }
+
+    /**
+     * Publishes a notification to one user and queues its push in the outbox, in one transaction when
+     * transactions are enabled. Called inside a caller's transaction, both writes join it, so the domain change,
+     * the notification and the push commit or fail together. The push is sent later by the outbox dispatcher,
+     * with the saved notification's id added to its data.
+     */
+    public Notification publishWithPush(Notification notification, String receiverId, String title, String body, Map<String, Object> data) {
+        return mongoTransactions.execute(tx -> {
+            Notification saved = publish(notification, List.of(receiverId));
+            Map<String, Object> payload = new HashMap<>(data);
+            payload.put("notificationId", saved.getId());
+
+            Instant now = Instant.now();
+            customOutboxRepository.insert(OutboxMessage.builder()
+                    .userId(receiverId)
+                    .title(title)
+                    .body(body)
+                    .data(payload)
+                    .status(OutboxStatus.PENDING)
+                    .attempts(0)
+                    .availableAt(now)
+                    .createdAt(now)
+                    .build());
+            return saved;
+        });
+    }
+
+    /**
+     * Delivers an already saved notification to more recipients, e.g. the next chunk of a fan-out,
+     * and bumps their unread counters.
+     */
+    public void deliver(Notification notification, List<String> receiverIds) {
+        customNotificationRepository.insertInboxEntries(notification, receiverIds);
+        customNotificationRepository.incrementUnread(receiverIds.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting())));
+        log.debug("Delivered notification {} to {} recipients", notification.getId(), receiverIds.size());
+    }
+
+    /**
+     * Removes every notification about a task together with all recipients' inbox entries.
+     */
+    public void deleteByTaskId(String taskId) {
+        customNotificationRepository.deleteInboxEntriesByTaskId(taskId);
+        notificationRepository.deleteAllByTaskId(taskId);
+    }
+}
@@ -0,0 +1,257 @@
+package com.snaptask.server.snaptask_server.service.notification;
+
+import com.snaptask.server.snaptask_server.config.AsyncConfiguration;
+import com.snaptask.server.snaptask_server.dto.notification.SeekerPushTarget;
+import com.snaptask.server.snaptask_server.enums.NotificationStatus;
+import com.snaptask.server.snaptask_server.enums.NotificationType;
+import com.snaptask.server.snaptask_server.modals.Notification;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.modals.User;
+import com.snaptask.server.snaptask_server.service.ExpoPushService;
+import com.snaptask.server.snaptask_server.util.Helper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Notifies matching seekers about a newly created task, off the poster's request thread.
+ *
+ * Three stages:
+ *  1. a bounded job queue filled by {@link #submit};
+ *  2. resolver threads that stream eligible seekers from Mongo in chunks and deliver each chunk to their inboxes;
+ *  3. the fan-out executor ({@link AsyncConfiguration#fanoutExecutor}), which hands Expo push batches to the non-blocking
+ *     push client as soon as each chunk is resolved.
+ *
+ * Both queues are bounded. When the job queue stays full the poster's thread resolves the job itself,
+ * and when the dispatch queue is full the resolver sends the batch itself, so overload slows producers
+ * down instead of growing the heap.
+ */
+@Slf4j
+@Component
+public class TaskFanOutPipeline {
+
+    private static final String PUSH_TITLE = "New Task Available!";
+
+    private final Helper helper;
+    private final NotificationPublisher notificationPublisher;
+    private final ExpoPushService expoPushService;
+
+    private final BlockingQueue<TaskFanOutJob> jobs;
+    private final int resolverThreads;
+    private final long enqueueTimeoutMs;
+    private final int pushBatchSize;
+    private final int resolveChunkSize;
+    private final ExecutorService dispatchExecutor;
+    private final List<Thread> resolvers = new ArrayList<>();
+    private volatile boolean running = false;
+
+    private final Timer queueWait;
+    private final Timer resolveLatency;
+    private final Timer dispatchLatency;
+    private final Counter callerRuns;
+    private final Counter droppedAtShutdown;
+
+    public TaskFanOutPipeline(
+            Helper helper,
+            NotificationPublisher notificationPublisher,
+            ExpoPushService expoPushService,
+            MeterRegistry meterRegistry,
+            @Qualifier(AsyncConfiguration.FANOUT_EXECUTOR) ExecutorService dispatchExecutor,
+            @Value("${snaptask.fanout.queue-capacity:1000}") int queueCapacity,
+            @Value("${snaptask.fanout.resolver-threads:2}") int resolverThreads,
+            @Value("${snaptask.fanout.enqueue-timeout-ms:100}") long enqueueTimeoutMs,
+            @Value("${snaptask.fanout.push-batch-size:100}") int pushBatchSize,
+            @Value("${snaptask.fanout.resolve-chunk-size:500}") int resolveChunkSize
+    ) {
+        this.helper = helper;
+        this.notificationPublisher = notificationPublisher;
+        this.expoPushService = expoPushService;
+        this.jobs = new ArrayBlockingQueue<>(queueCapacity);
+        this.resolverThreads = resolverThreads;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.pushBatchSize = pushBatchSize;
+        this.resolveChunkSize = resolveChunkSize;
+        this.dispatchExecutor = dispatchExecutor;
+
+        Gauge.builder("snaptask.fanout.queue.depth", jobs, BlockingQueue::size)
+                .description("Task fan-out jobs waiting for a resolver")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("snaptask.fanout.queue.wait")
+                .description("Time a fan-out job waited before a resolver picked it up")
+                .register(meterRegistry);
+        this.resolveLatency = Timer.builder("snaptask.fanout.resolve")
+                .description("Time to resolve seekers and hand all push batches to dispatch")
+                .register(meterRegistry);
+        this.dispatchLatency = Timer.builder("snaptask.fanout.dispatch")
+                .description("Time to send one Expo push batch")
+                .register(meterRegistry);
+        this.callerRuns = Counter.builder("snaptask.fanout.caller_runs")
+                .description("Fan-out jobs resolved on the submitting thread because the queue was full")
+                .register(meterRegistry);
+        this.droppedAtShutdown = Counter.builder("snaptask.fanout.dropped")
+                .description("Fan-out jobs still queued at shutdown, whose seekers were not notified")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 1; i <= resolverThreads; i++) {
+            Thread resolver = new Thread(this::resolveLoop, "fanout-resolver-" + i);
+            resolver.setDaemon(true);
+            resolver.start();
+            resolvers.add(resolver);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        resolvers.forEach(Thread::interrupt);
+
+        List<TaskFanOutJob> pending = new ArrayList<>();
+        jobs.drainTo(pending);
+        if (!pending.isEmpty()) {
+            droppedAtShutdown.increment(pending.size());
+            log.error("Shutting down with {} fan-out jobs queued, their seekers are not notified: tasks {}",
+                    pending.size(), pending.stream().map(job -> job.task().getId()).toList());
+        }
+    }
+
+    /**
+     * Queues seeker notifications for a saved task. Poster details are captured here because
+     * the resolver threads have no security context.
+     */
+    public void submit(Task task, User poster) {
+        if (task == null) {
+            log.warn("Task is null, skipping notifications");
+            return;
+        }
+
+        GeoJsonPoint origin = task.getLocation() != null ? task.getLocation() : poster.getGeoJsonPoint();
+        TaskFanOutJob job = new TaskFanOutJob(task, poster.getId(), poster.getName(), origin, System.nanoTime());
+        if (!running) {
+            // resolvers are gone, a queued job would never be picked up
+            log.warn("Fan-out pipeline stopped, resolving task {} on the caller thread", task.getId());
+            process(job);
+            return;
+        }
+        try {
+            if (jobs.offer(job, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Fan-out queue full ({} jobs), resolving task {} on the caller thread", jobs.size(), task.getId());
+        callerRuns.increment();
+        process(job);
+    }
+
+    private void resolveLoop() {
+        while (running) {
+            try {
+                process(jobs.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void process(TaskFanOutJob job) {
+        queueWait.record(System.nanoTime() - job.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        resolveLatency.record(() -> {
+            try {
+                resolve(job);
+            } catch (Exception e) {
+                log.error("Unexpected error while notifying seekers for task {}: {}", job.task().getId(), e.getMessage(), e);
+            }
+        });
+    }
+
+    private void resolve(TaskFanOutJob job) {
+        Task task = job.task();
+        String body = task.getTitle() + " - " + task.getCategory();
+        AtomicReference<Notification> notification = new AtomicReference<>();
+        AtomicLong tokenCount = new AtomicLong();
+
+        // Seekers arrive in chunks straight from the Mongo cursor; each chunk is recorded and dispatched before the next is read
+        long seekerCount = helper.streamEligibleSeekers(task, job.posterLocation(), resolveChunkSize, chunk -> {
+            List<String> receiverIds = chunk.stream().map(SeekerPushTarget::id).toList();
+            if (notification.get() == null) {
+                notification.set(saveNotification(job, receiverIds));
+            } else {
+                notificationPublisher.deliver(notification.get(), receiverIds);
+            }
+
+            List<String> expoTokens = chunk.stream()
+                    .flatMap(target -> target.pushTokens().stream())
+                    .filter(token -> token != null && !token.isBlank())
+                    .distinct()
+                    .toList();
+            tokenCount.addAndGet(expoTokens.size());
+
+            Map<String, Object> data = Map.of(
+                    "taskId", task.getId(),
+                    "taskTitle", task.getTitle(),
+                    "taskCategory", task.getCategory(),
+                    "type", NotificationType.BID.name(),
+                    "notificationId", notification.get().getId()
+            );
+            for (int i = 0; i < expoTokens.size(); i += pushBatchSize) {
+                List<String> batch = expoTokens.subList(i, Math.min(i + pushBatchSize, expoTokens.size()));
+                dispatchExecutor.execute(() -> {
+                    Timer.Sample sample = Timer.start();
+                    expoPushService.sendBatch(batch, PUSH_TITLE, body, data)
+                            .whenComplete((ignored, error) -> sample.stop(dispatchLatency));
+                });
+            }
+        });
+
+        if (seekerCount == 0) {
+            log.info("No seekers to notify for task {}", task.getId());
+            return;
+        }
+        log.info("Expo push dispatch queued for task {} ({} seekers, {} tokens)", task.getId(), seekerCount, tokenCount.get());
+    }
+
+    private Notification saveNotification(TaskFanOutJob job, List<String> receiverIds) {
+        Task task = job.task();
+        Notification notification = Notification.builder()
+                .senderId(job.posterId())
+                .posterName(job.posterName())
+                .taskId(task.getId())
+                .taskTitle(task.getTitle())
+                .message("A new task matching your skills is available!")
+                .budget(task.getBudget() != null ? String.valueOf(task.getBudget()) : null)
+                .deadline(task.getDeadline() != null ? task.getDeadline().toString() : null)
+                .type(NotificationType.BID)
+                .status(NotificationStatus.NEW)
+                .isSeen(false)
+                .build();
+
+        Notification saved = notificationPublisher.publish(notification, receiverIds);
+        log.info("Saved broadcast notification for task {}", task.getId());
+        return saved;
+    }
+
+    private record TaskFanOutJob(Task task, String posterId, String posterName, GeoJsonPoint posterLocation, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.snaptask.server.snaptask_server.service.outbox;
+
+import com.snaptask.server.snaptask_server.config.AsyncConfiguration;
+import com.snaptask.server.snaptask_server.exceptions.customExceptions.PushDeliveryException;
+import com.snaptask.server.snaptask_server.modals.OutboxMessage;
+import com.snaptask.server.snaptask_server.repository.device.CustomDeviceRepository;
+import com.snaptask.server.snaptask_server.repository.outbox.CustomOutboxRepository;
+import com.snaptask.server.snaptask_server.service.ExpoPushService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the push outbox.
+ *
+ * Each run leases a batch of due messages, looks up all their device tokens in one query and sends them concurrently
+ * through the push client. Delivered messages are deleted; failed ones are released with a jittered exponential
+ * backoff and parked as DEAD after the last attempt or on a non-retryable error. Leases expire, so any number of
+ * nodes can run the dispatcher and a crashed node's messages are picked up by the others. API-only nodes can turn it
+ * off with snaptask.outbox.dispatcher.enabled=false.
+ *
+ * The schedule only triggers runs: each run drains on the outbox executor, and a trigger that arrives while a run is
+ * still in progress is skipped, so the shared scheduler thread never waits on a batch.
+ */
+@Slf4j
+@Service
+public class OutboxDispatcher {
+
+    private final CustomOutboxRepository customOutboxRepository;
+    private final CustomDeviceRepository customDeviceRepository;
+    private final ExpoPushService expoPushService;
+    private final Executor drainExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchLatency;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    public OutboxDispatcher(
+            CustomOutboxRepository customOutboxRepository,
+            CustomDeviceRepository customDeviceRepository,
+            ExpoPushService expoPushService,
+            MeterRegistry meterRegistry,
+            @Qualifier(AsyncConfiguration.OUTBOX_EXECUTOR) Executor drainExecutor,
+            @Value("${snaptask.outbox.dispatcher.enabled:true}") boolean enabled,
+            @Value("${snaptask.outbox.batch-size:100}") int batchSize,
+            @Value("${snaptask.outbox.lease-ms:60000}") long leaseMs,
+            @Value("${snaptask.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${snaptask.outbox.base-delay-ms:5000}") long baseDelayMs,
+            @Value("${snaptask.outbox.max-delay-ms:600000}") long maxDelayMs
+    ) {
+        this.customOutboxRepository = customOutboxRepository;
+        this.customDeviceRepository = customDeviceRepository;
+        this.expoPushService = expoPushService;
+        this.drainExecutor = drainExecutor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+
+        this.delivered = Counter.builder("snaptask.outbox.delivered")
+                .description("Outbox pushes accepted by Expo")
+                .register(meterRegistry);
+        this.retried = Counter.builder("snaptask.outbox.retried")
+                .description("Outbox pushes released for a later attempt")
+                .register(meterRegistry);
+        this.dead = Counter.builder("snaptask.outbox.dead")
+                .description("Outbox pushes given up on")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("snaptask.outbox.batch")
+                .description("Time to dispatch one leased outbox batch")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    @Scheduled(
+            initialDelayString = "${snaptask.outbox.poll-interval-ms:1000}",
+            fixedDelayString = "${snaptask.outbox.poll-interval-ms:1000}"
+    )
+    public void trigger() {
+        if (!enabled || !running || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainExecutor.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.warn("Outbox executor rejected a drain run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Leases and dispatches batches until fewer than a full batch is due.
+     */
+    void drain() {
+        List<OutboxMessage> leased;
+        do {
+            String leaseToken = UUID.randomUUID().toString();
+            Instant now = Instant.now();
+            try {
+                leased = customOutboxRepository.claim(leaseToken, now, now.plus(lease), batchSize);
+            } catch (Exception e) {
+                log.warn("Could not claim outbox messages: {}", e.getMessage());
+                return;
+            }
+            if (leased.isEmpty()) {
+                return;
+            }
+            List<OutboxMessage> batch = leased;
+            batchLatency.record(() -> dispatch(batch, leaseToken));
+        } while (running && leased.size() == batchSize);
+    }
+
+    private void dispatch(List<OutboxMessage> batch, String leaseToken) {
+        Set<String> userIds = new HashSet<>();
+        batch.forEach(message -> userIds.add(message.getUserId()));
+        Map<String, List<String>> tokens = customDeviceRepository.findTokensByUserIds(userIds);
+
+        Map<OutboxMessage, CompletableFuture<Void>> sends = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            sends.put(message, expoPushService.deliverBatch(
+                    tokens.getOrDefault(message.getUserId(), List.of()),
+                    message.getTitle(),
+                    message.getBody(),
+                    message.getData()
+            ));
+        }
+
+        // Stop waiting well before the lease runs out; unfinished sends are retried later
+        try {
+            CompletableFuture.allOf(sends.values().toArray(CompletableFuture[]::new))
+                    .get(lease.toMillis() / 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ignored) {
+            // individual outcomes are read below
+        }
+
+        sends.forEach((message, send) -> settle(message, send, leaseToken));
+    }
+
+    private void settle(OutboxMessage message, CompletableFuture<Void> send, String leaseToken) {
+        try {
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                customOutboxRepository.complete(message.getId(), leaseToken);
+                delivered.increment();
+                return;
+            }
+
+            Throwable error = send.isDone() ? unwrap(send) : null;
+            String reason = error != null ? error.getMessage() : "timed out";
+            int attempts = message.getAttempts() + 1;
+            boolean retryable = !(error instanceof PushDeliveryException pushError) || pushError.isRetryable();
+
+            if (!retryable || attempts >= maxAttempts) {
+                customOutboxRepository.markDead(message.getId(), leaseToken, attempts, reason);
+                dead.increment();
+                log.error("Giving up on outbox push {} to user {} after {} attempts: {}", message.getId(), message.getUserId(), attempts, reason);
+                return;
+            }
+
+            customOutboxRepository.retryLater(message.getId(), leaseToken, attempts, Instant.now().plusMillis(backoff(attempts)), reason);
+            retried.increment();
+            log.warn("Outbox push {} failed (attempt {}/{}), will retry: {}", message.getId(), attempts, maxAttempts, reason);
+        } catch (Exception e) {
+            // the lease expires and another run picks the message up again
+            log.warn("Could not settle outbox message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(CompletableFuture<Void> send) {
+        try {
+            send.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
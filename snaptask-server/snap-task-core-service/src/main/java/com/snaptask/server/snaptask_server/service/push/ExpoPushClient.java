@@ -0,0 +1,191 @@
+package com.snaptask.server.snaptask_server.service.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snaptask.server.snaptask_server.exceptions.customExceptions.PushDeliveryException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Shared transport for the Expo push API.
+ *
+ * One {@link HttpClient} for the whole app: connections are kept alive and reused, HTTP/2 multiplexes concurrent
+ * requests over them, and responses complete asynchronously, so no thread waits on the network.
+ * Large bodies are gzip-compressed. A semaphore caps in-flight requests; requests over the cap wait in a bounded queue
+ * and are sent as earlier ones complete, so callers never block. When the queue is full the request fails as retryable,
+ * which pushes back on producers instead of flooding Expo.
+ */
+@Slf4j
+@Component
+public class ExpoPushClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI sendUri;
+    private final URI receiptsUri;
+    private final Duration readTimeout;
+    private final int gzipMinBytes;
+    private final Semaphore inFlight;
+    private final BlockingQueue<PendingRequest> waiting;
+
+    public ExpoPushClient(
+            ObjectMapper objectMapper,
+            @Value("${snaptask.push.expo.base-url:https://exp.host/--/api/v2/push}") String baseUrl,
+            @Value("${snaptask.push.expo.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${snaptask.push.expo.read-timeout-ms:15000}") long readTimeoutMs,
+            @Value("${snaptask.push.expo.max-concurrent-requests:8}") int maxConcurrentRequests,
+            @Value("${snaptask.push.expo.max-queued-requests:1000}") int maxQueuedRequests,
+            @Value("${snaptask.push.expo.gzip-min-bytes:1024}") int gzipMinBytes
+    ) {
+        this.objectMapper = objectMapper;
+        this.sendUri = URI.create(baseUrl + "/send");
+        this.receiptsUri = URI.create(baseUrl + "/getReceipts");
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.gzipMinBytes = gzipMinBytes;
+        this.inFlight = new Semaphore(maxConcurrentRequests);
+        this.waiting = new LinkedBlockingQueue<>(maxQueuedRequests);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    /**
+     * Posts push messages (a JSON array of up to 100 messages) and completes with Expo's parsed response.
+     * Completes exceptionally with {@link PushDeliveryException} on transport errors and non-2xx responses.
+     */
+    public CompletableFuture<JsonNode> send(Object messages) {
+        return post(sendUri, messages);
+    }
+
+    /**
+     * Fetches receipts for previously returned ticket ids.
+     */
+    public CompletableFuture<JsonNode> getReceipts(Object request) {
+        return post(receiptsUri, request);
+    }
+
+    private CompletableFuture<JsonNode> post(URI uri, Object payload) {
+        HttpRequest request;
+        try {
+            request = buildRequest(uri, objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new PushDeliveryException("Could not serialize push payload", 0, false, e));
+        }
+
+        PendingRequest pending = new PendingRequest(request, new CompletableFuture<>());
+        if (!waiting.offer(pending)) {
+            return CompletableFuture.failedFuture(new PushDeliveryException("Push queue full", 0, true, null));
+        }
+        dispatchWaiting();
+        return pending.result();
+    }
+
+    /**
+     * Sends queued requests while permits are free. Called after every enqueue and every completion, so a request
+     * queued just as a permit was released is picked up by whichever side runs last.
+     */
+    private void dispatchWaiting() {
+        while (!waiting.isEmpty() && inFlight.tryAcquire()) {
+            PendingRequest next = waiting.poll();
+            if (next == null) {
+                inFlight.release();
+                continue;
+            }
+            dispatch(next);
+        }
+    }
+
+    private void dispatch(PendingRequest pending) {
+        CompletableFuture<HttpResponse<byte[]>> call;
+        try {
+            call = httpClient.sendAsync(pending.request(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            pending.result().completeExceptionally(new PushDeliveryException("Expo request failed: " + e.getMessage(), 0, false, e));
+            return;
+        }
+
+        call.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    throw new PushDeliveryException("Expo request failed: " + error.getMessage(), 0, true, error);
+                }
+                pending.result().complete(parse(response));
+            } catch (PushDeliveryException e) {
+                pending.result().completeExceptionally(e);
+            } finally {
+                inFlight.release();
+                dispatchWaiting();
+            }
+        });
+    }
+
+    private HttpRequest buildRequest(URI uri, byte[] body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+
+        if (body.length >= gzipMinBytes) {
+            builder.header("Content-Encoding", "gzip");
+            body = gzip(body);
+        }
+        return builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+
+    private JsonNode parse(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        byte[] body = response.body();
+        try {
+            if (response.headers().firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false)) {
+                body = gunzip(body);
+            }
+            if (status < 200 || status >= 300) {
+                boolean retryable = status == 429 || status >= 500;
+                throw new PushDeliveryException("Expo returned HTTP " + status + ": " + new String(body), status, retryable, null);
+            }
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new PushDeliveryException("Unreadable Expo response (HTTP " + status + ")", status, false, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new IllegalStateException("gzip failed", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private record PendingRequest(HttpRequest request, CompletableFuture<JsonNode> result) {
+    }
+}
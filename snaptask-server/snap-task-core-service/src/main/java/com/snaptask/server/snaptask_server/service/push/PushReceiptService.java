@@ -0,0 +1,190 @@
+package com.snaptask.server.snaptask_server.service.push;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.snaptask.server.snaptask_server.config.AsyncConfiguration;
+import com.snaptask.server.snaptask_server.modals.PushTicket;
+import com.snaptask.server.snaptask_server.repository.push.CustomPushTicketRepository;
+import com.snaptask.server.snaptask_server.repository.device.CustomDeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks Expo push tickets and prunes dead device tokens.
+ *
+ * Accepted sends leave a ticket in push_tickets. A scheduled poller fetches their receipts in batches once Expo
+ * has processed them, and every device whose token is reported as DeviceNotRegistered (in a ticket or a receipt)
+ * is removed in bulk, so later fan-outs only target live devices. Tickets whose receipts are not ready yet are
+ * checked again on a later run.
+ *
+ * Tickets arrive on the HTTP client's completion threads; their Mongo writes run on the push-receipt executor
+ * so those threads go straight back to completing responses.
+ */
+@Slf4j
+@Service
+public class PushReceiptService {
+
+    private static final String DEVICE_NOT_REGISTERED = "DeviceNotRegistered";
+
+    private final ExpoPushClient expoPushClient;
+    private final CustomPushTicketRepository customPushTicketRepository;
+    private final CustomDeviceRepository customDeviceRepository;
+    private final ExecutorService writeExecutor;
+    private final Duration receiptDelay;
+    private final int batchSize;
+
+    private final Counter deadTokens;
+
+    public PushReceiptService(
+            ExpoPushClient expoPushClient,
+            CustomPushTicketRepository customPushTicketRepository,
+            CustomDeviceRepository customDeviceRepository,
+            MeterRegistry meterRegistry,
+            @Qualifier(AsyncConfiguration.PUSH_RECEIPT_EXECUTOR) ExecutorService writeExecutor,
+            @Value("${snaptask.push.receipts.delay-ms:900000}") long receiptDelayMs,
+            @Value("${snaptask.push.receipts.batch-size:1000}") int batchSize
+    ) {
+        this.expoPushClient = expoPushClient;
+        this.customPushTicketRepository = customPushTicketRepository;
+        this.customDeviceRepository = customDeviceRepository;
+        this.writeExecutor = writeExecutor;
+        this.receiptDelay = Duration.ofMillis(receiptDelayMs);
+        this.batchSize = batchSize;
+        this.deadTokens = Counter.builder("snaptask.push.dead_tokens")
+                .description("Push tokens cleared after Expo reported DeviceNotRegistered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the tickets of one send. tokens must be in the same order as the messages that were sent.
+     */
+    public void recordTickets(List<String> tokens, JsonNode response) {
+        JsonNode data = response.path("data");
+        List<JsonNode> tickets = new ArrayList<>();
+        if (data.isArray()) {
+            data.forEach(tickets::add);
+        } else if (data.isObject()) {
+            tickets.add(data);
+        }
+
+        Instant now = Instant.now();
+        Instant checkAfter = now.plus(receiptDelay);
+        List<PushTicket> accepted = new ArrayList<>();
+        Set<String> dead = new HashSet<>();
+        for (int i = 0; i < tickets.size() && i < tokens.size(); i++) {
+            JsonNode ticket = tickets.get(i);
+            if ("ok".equalsIgnoreCase(ticket.path("status").asText()) && ticket.hasNonNull("id")) {
+                accepted.add(PushTicket.builder()
+                        .ticketId(ticket.get("id").asText())
+                        .token(tokens.get(i))
+                        .createdAt(now)
+                        .checkAfter(checkAfter)
+                        .build());
+            } else if (DEVICE_NOT_REGISTERED.equals(ticket.path("details").path("error").asText())) {
+                dead.add(tokens.get(i));
+            }
+        }
+
+        if (accepted.isEmpty() && dead.isEmpty()) {
+            return;
+        }
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    customPushTicketRepository.insertAll(accepted);
+                } catch (Exception e) {
+                    log.warn("Could not record {} push tickets: {}", accepted.size(), e.getMessage());
+                }
+                invalidateTokens(dead);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Push receipt executor saturated, dropped {} tickets and {} dead tokens", accepted.size(), dead.size());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${snaptask.push.receipts.poll-interval-ms:60000}",
+            fixedDelayString = "${snaptask.push.receipts.poll-interval-ms:60000}"
+    )
+    public void pollReceipts() {
+        Instant now = Instant.now();
+        List<PushTicket> due;
+        do {
+            due = customPushTicketRepository.findDue(now, batchSize);
+            if (due.isEmpty()) {
+                return;
+            }
+            if (!checkReceipts(due)) {
+                return;
+            }
+        } while (due.size() == batchSize);
+    }
+
+    /**
+     * @return false when the receipts call failed and polling should stop until the next run
+     */
+    private boolean checkReceipts(List<PushTicket> tickets) {
+        Map<String, PushTicket> byId = tickets.stream()
+                .collect(Collectors.toMap(PushTicket::getTicketId, Function.identity()));
+
+        JsonNode receipts;
+        try {
+            receipts = expoPushClient.getReceipts(Map.of("ids", byId.keySet())).join().path("data");
+        } catch (Exception e) {
+            log.warn("Fetching Expo receipts for {} tickets failed: {}", byId.size(), e.getMessage());
+            return false;
+        }
+
+        Set<String> dead = new HashSet<>();
+        Set<String> pending = new HashSet<>(byId.keySet());
+        Iterator<Map.Entry<String, JsonNode>> fields = receipts.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> receipt = fields.next();
+            JsonNode value = receipt.getValue();
+            pending.remove(receipt.getKey());
+            if ("error".equalsIgnoreCase(value.path("status").asText())) {
+                String error = value.path("details").path("error").asText();
+                PushTicket ticket = byId.get(receipt.getKey());
+                if (DEVICE_NOT_REGISTERED.equals(error) && ticket != null) {
+                    dead.add(ticket.getToken());
+                } else {
+                    log.warn("Expo receipt {} failed: {} {}", receipt.getKey(), error, value.path("message").asText());
+                }
+            }
+        }
+
+        // Tickets without a receipt are not processed yet; check them again later, the TTL index ends the wait
+        Set<String> resolved = new HashSet<>(byId.keySet());
+        resolved.removeAll(pending);
+        customPushTicketRepository.deleteByTicketIds(resolved);
+        customPushTicketRepository.postpone(pending, Instant.now().plus(receiptDelay));
+        invalidateTokens(dead);
+        log.info("Checked {} push receipts, {} returned, {} pending, {} dead tokens", byId.size(), receipts.size(), pending.size(), dead.size());
+        return true;
+    }
+
+    private void invalidateTokens(Set<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        try {
+            long removed = customDeviceRepository.deleteByTokens(tokens);
+            deadTokens.increment(tokens.size());
+            log.info("Removed {} devices for {} dead push tokens", removed, tokens.size());
+        } catch (Exception e) {
+            log.warn("Could not clear {} dead push tokens: {}", tokens.size(), e.getMessage());
+        }
+    }
+}
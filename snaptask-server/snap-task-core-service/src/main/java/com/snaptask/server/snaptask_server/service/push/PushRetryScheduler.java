@@ -0,0 +1,132 @@
+package com.snaptask.server.snaptask_server.service.push;
+
+import com.snaptask.server.snaptask_server.config.AsyncConfiguration;
+import com.snaptask.server.snaptask_server.exceptions.customExceptions.PushDeliveryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Retries failed push sends from a delay queue instead of sleeping on the sending thread.
+ *
+ * A retryable failure re-schedules the call on a single timer thread after a jittered exponential backoff
+ * (half fixed, half random, so a burst of failures does not retry in lockstep). The timer only keeps time: when a delay
+ * expires it hands the attempt to the push-retry executor, so a slow call cannot hold up other due retries.
+ * Between attempts nothing holds a thread; after the last attempt the returned future fails with the last error.
+ */
+@Slf4j
+@Component
+public class PushRetryScheduler {
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService attemptExecutor;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public PushRetryScheduler(
+            MeterRegistry meterRegistry,
+            @Qualifier(AsyncConfiguration.PUSH_RETRY_EXECUTOR) ExecutorService attemptExecutor,
+            @Value("${snaptask.push.retry.max-attempts:4}") int maxAttempts,
+            @Value("${snaptask.push.retry.base-delay-ms:500}") long baseDelayMs,
+            @Value("${snaptask.push.retry.max-delay-ms:30000}") long maxDelayMs
+    ) {
+        this.attemptExecutor = attemptExecutor;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "push-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+
+        Gauge.builder("snaptask.push.retry.pending", scheduler, executor -> executor.getQueue().size())
+                .description("Push sends waiting in the retry delay queue")
+                .register(meterRegistry);
+        this.retries = Counter.builder("snaptask.push.retry.scheduled")
+                .description("Push sends re-scheduled after a retryable failure")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("snaptask.push.retry.exhausted")
+                .description("Push sends given up after the last attempt")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs the call, retrying retryable {@link PushDeliveryException}s up to the configured number of attempts.
+     */
+    public <T> CompletableFuture<T> withRetry(String description, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(description, call, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(String description, Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            boolean retryable = cause instanceof PushDeliveryException pushError && pushError.isRetryable();
+            if (!retryable || attempt >= maxAttempts) {
+                if (retryable) {
+                    exhausted.increment();
+                    log.error("Giving up on {} after {} attempts: {}", description, attempt, cause.getMessage());
+                }
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            long delay = backoff(attempt);
+            retries.increment();
+            log.warn("{} failed (attempt {}/{}), retrying in {}ms: {}", description, attempt, maxAttempts, delay, cause.getMessage());
+            try {
+                scheduler.schedule(() -> handOff(description, call, attempt + 1, result, cause), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private <T> void handOff(String description, Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> result, Throwable lastError) {
+        try {
+            attemptExecutor.execute(() -> attempt(description, call, attempt, result));
+        } catch (RejectedExecutionException e) {
+            exhausted.increment();
+            log.error("Giving up on {}, no capacity for attempt {}: {}", description, attempt, lastError.getMessage());
+            result.completeExceptionally(lastError);
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
@@ -0,0 +1,221 @@
+package com.snaptask.server.snaptask_server.service.task;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.snaptask.server.snaptask_server.enums.TaskStatus;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
+import com.snaptask.server.snaptask_server.util.ChangeStreamWatcher;
+import com.snaptask.server.snaptask_server.util.PageCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-process copy of the open (ACTIVE, unassigned) tasks, sharded by category and ordered like the seeker feed.
+ *
+ * Loaded once the application is ready and kept current by a change stream on the tasks collection.
+ * When the stream is down or has not reported within the allowed staleness, callers fall back to Mongo.
+ * Stays off on a standalone MongoDB, which has no change streams.
+ */
+@Slf4j
+@Component
+public class OpenTaskIndex {
+
+    private static final Comparator<Entry> FEED_ORDER = Comparator
+            .comparing(Entry::postedOn, Comparator.reverseOrder())
+            .thenComparing(Entry::id, Comparator.reverseOrder());
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final ChangeStreamWatcher watcher;
+
+    private final Map<String, ConcurrentSkipListSet<Entry>> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+
+    private final Counter eventsApplied;
+    private final Counter fallbacks;
+
+    public OpenTaskIndex(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${snaptask.task-index.enabled:true}") boolean enabled,
+            @Value("${snaptask.task-index.max-staleness-ms:5000}") long maxStalenessMs,
+            @Value("${snaptask.task-index.retry-delay-ms:5000}") long retryDelayMs
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.maxStaleness = Duration.ofMillis(maxStalenessMs);
+        this.watcher = new ChangeStreamWatcher("open-task-index", mongoTemplate, this::openChangeStream,
+                this::reload, this::apply, Duration.ofMillis(retryDelayMs));
+
+        this.eventsApplied = Counter.builder("snaptask.task_index.events")
+                .description("Change stream events applied to the open-task index")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("snaptask.task_index.fallbacks")
+                .description("Feed reads served from Mongo because the open-task index was not fresh")
+                .register(meterRegistry);
+        Gauge.builder("snaptask.task_index.staleness.seconds", this, OpenTaskIndex::stalenessSeconds)
+                .description("Seconds since the change stream last reported")
+                .register(meterRegistry);
+        Gauge.builder("snaptask.task_index.size", byId, Map::size)
+                .description("Open tasks held in memory")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Open-task index disabled, seeker feed is served from Mongo");
+            return;
+        }
+        if (!watcher.start()) {
+            log.info("Open-task index disabled, MongoDB is standalone and has no change streams; seeker feed is served from Mongo");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        watcher.stop();
+    }
+
+    /**
+     * Same contract as {@link CustomTaskRepository#findOpenTasksByCategory}, served from memory.
+     * Returns empty when the index is not fresh enough, in which case the caller must query Mongo.
+     */
+    public Optional<List<Task>> findOpenTasksByCategory(String category, PageCursor after, int limit) {
+        if (!isServing()) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+
+        NavigableSet<Entry> tasks = byCategory.get(category);
+        if (tasks == null) {
+            return Optional.of(Collections.emptyList());
+        }
+        if (after != null) {
+            Entry from = new Entry(after.id(), after.sortValueAsDateTime(), null);
+            tasks = tasks.tailSet(from, false);
+        }
+
+        List<Task> page = new ArrayList<>(Math.min(limit, tasks.size()));
+        for (Entry entry : tasks) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(entry.task());
+        }
+        return Optional.of(page);
+    }
+
+    public boolean isServing() {
+        return watcher.isServing(maxStaleness);
+    }
+
+    private double stalenessSeconds() {
+        long lastHeartbeatMillis = watcher.lastHeartbeatMillis();
+        if (lastHeartbeatMillis == 0) {
+            return Double.NaN;
+        }
+        return (System.currentTimeMillis() - lastHeartbeatMillis) / 1000.0;
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openChangeStream() {
+        List<String> projected = new ArrayList<>(List.of("operationType", "documentKey", "fullDocument._id", "fullDocument.is_assigned"));
+        for (String field : CustomTaskRepository.SEEKER_SUMMARY_FIELDS) {
+            projected.add("fullDocument." + field);
+        }
+        List<Bson> pipeline = List.of(Aggregates.project(Projections.include(projected)));
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Task.class))
+                .watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS)
+                .cursor();
+    }
+
+    private void reload() {
+        Query query = new Query(Criteria.where("status").is(TaskStatus.ACTIVE).and("is_assigned").is(false));
+        query.fields().include(CustomTaskRepository.SEEKER_SUMMARY_FIELDS);
+
+        byCategory.clear();
+        byId.clear();
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            tasks.forEach(this::upsert);
+        }
+        log.info("Open-task index loaded with {} tasks", byId.size());
+    }
+
+    private void apply(ChangeStreamDocument<Document> event) {
+        eventsApplied.increment();
+        switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document fullDocument = event.getFullDocument();
+                if (fullDocument == null) {
+                    // deleted before the lookup ran
+                    remove(ChangeStreamWatcher.documentId(event));
+                    return;
+                }
+                Task task = mongoTemplate.getConverter().read(Task.class, fullDocument);
+                if (task.getStatus() == TaskStatus.ACTIVE && !task.isAssigned()) {
+                    upsert(task);
+                } else {
+                    remove(task.getId());
+                }
+            }
+            case DELETE -> remove(ChangeStreamWatcher.documentId(event));
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE ->
+                    throw new IllegalStateException("Change stream invalidated by " + event.getOperationType());
+            default -> { }
+        }
+    }
+
+    private void upsert(Task task) {
+        if (task.getId() == null || task.getCategory() == null || task.getPostedOn() == null) {
+            return;
+        }
+        remove(task.getId());
+        Entry entry = new Entry(task.getId(), task.getPostedOn(), task);
+        byCategory.computeIfAbsent(task.getCategory(), c -> new ConcurrentSkipListSet<>(FEED_ORDER)).add(entry);
+        byId.put(task.getId(), entry);
+    }
+
+    private void remove(String taskId) {
+        if (taskId == null) {
+            return;
+        }
+        Entry previous = byId.remove(taskId);
+        if (previous != null) {
+            Set<Entry> tasks = byCategory.get(previous.task().getCategory());
+            if (tasks != null) {
+                tasks.remove(previous);
+            }
+        }
+    }
+
+    private record Entry(String id, LocalDateTime postedOn, Task task) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.snaptask.server.snaptask_server.service.task;
+
+import com.snaptask.server.snaptask_server.modals.Bid;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.repository.bid.CustomBidRepository;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository.PosterTaskDetail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads everything the poster's task detail screen shows.
+ *
+ * aggregate (default): one $lookup aggregation, a single round trip.
+ * parallel: the task, its bids and the accepted bid as three projected queries run side by side on virtual threads,
+ * so the screen costs one round trip of latency without relying on $lookup. Like the aggregate, the assigned bid is
+ * the one named by the task's assigned_bid_id; if the ACCEPTED bid fetched in parallel is not that one, it is
+ * looked up by id, costing a second round trip in that case only.
+ */
+@Slf4j
+@Component
+public class PosterTaskDetailLoader {
+
+    enum Mode {
+        AGGREGATE,
+        PARALLEL
+    }
+
+    private final CustomTaskRepository customTaskRepository;
+    private final CustomBidRepository customBidRepository;
+    private final Mode mode;
+    private final int bidLimit;
+    private final Timer loadLatency;
+
+    public PosterTaskDetailLoader(
+            CustomTaskRepository customTaskRepository,
+            CustomBidRepository customBidRepository,
+            MeterRegistry meterRegistry,
+            @Value("${snaptask.poster-task-detail.mode:aggregate}") String mode,
+            @Value("${snaptask.poster-task-detail.bid-limit:100}") int bidLimit
+    ) {
+        this.customTaskRepository = customTaskRepository;
+        this.customBidRepository = customBidRepository;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.bidLimit = bidLimit;
+        this.loadLatency = Timer.builder("snaptask.poster_task_detail.load")
+                .description("Time to load the poster task detail view")
+                .tag("mode", this.mode.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        log.info("Poster task detail served in {} mode", this.mode);
+    }
+
+    /**
+     * @return null if the task does not exist
+     */
+    public PosterTaskDetail load(String taskId) {
+        return loadLatency.record(() -> mode == Mode.PARALLEL
+                ? loadParallel(taskId)
+                : customTaskRepository.findPosterTaskDetail(taskId, bidLimit));
+    }
+
+    private PosterTaskDetail loadParallel(String taskId) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Task> task = executor.submit(() -> customTaskRepository.findPosterTaskFields(taskId));
+            Future<List<Bid>> bids = executor.submit(() -> customBidRepository.findSummariesByTaskId(taskId, bidLimit));
+            // Found by status so it does not have to wait for the task's assigned_bid_id; checked against it below
+            Future<Bid> acceptedBid = executor.submit(() -> customBidRepository.findAcceptedBid(taskId));
+
+            Task loaded = task.get();
+            if (loaded == null) {
+                return null;
+            }
+            return new PosterTaskDetail(loaded, bids.get(), assignedBid(loaded, acceptedBid.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading task " + taskId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to load task " + taskId, e.getCause());
+        }
+    }
+
+    private Bid assignedBid(Task task, Bid acceptedBid) {
+        String assignedBidId = task.getAssignedBidId();
+        if (assignedBidId == null) {
+            return null;
+        }
+        if (acceptedBid != null && assignedBidId.equals(acceptedBid.getId())) {
+            return acceptedBid;
+        }
+        return customBidRepository.findSummaryById(assignedBidId);
+    }
+}
@@ -0,0 +1,203 @@
+package com.snaptask.server.snaptask_server.service.task;
+
+import com.snaptask.server.snaptask_server.enums.WorkMode;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.modals.User;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
+import com.snaptask.server.snaptask_server.util.GeoHash;
+import com.snaptask.server.snaptask_server.util.PageCursor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Ranks open tasks for the seeker's "for you" feed.
+ *
+ * Candidates are tasks in any of the seeker's skills plus tasks located near them. Each is scored as a weighted sum of
+ * skill match, distance, budget, recency and competition (fewer bids is better), and streamed through a bounded
+ * min-heap, so a page costs O(candidates * log K) time and O(K) memory whatever the candidate count.
+ *
+ * Pages are keyset on (score, id). Recency depends on the clock, so the first page fixes a ranking time and the cursor
+ * carries it, keeping scores stable while the seeker pages. The other inputs are read live, so pages are best-effort:
+ * a task that gets a bid, is assigned or is edited between pages may move across the cursor and be skipped or shown
+ * twice. Within a page tasks are always in ranking order.
+ */
+@Slf4j
+@Component
+public class SeekerFeedRanker {
+
+    /**
+     * Best first: higher score, then lower id for ties.
+     */
+    private static final Comparator<RankedTask> RANKING_ORDER = Comparator
+            .comparingDouble(RankedTask::score).reversed()
+            .thenComparing(ranked -> ranked.task().getId());
+
+    private final CustomTaskRepository customTaskRepository;
+    private final double skillWeight;
+    private final double distanceWeight;
+    private final double budgetWeight;
+    private final double recencyWeight;
+    private final double competitionWeight;
+    private final double radiusKm;
+    private final double budgetPivot;
+    private final double recencyHalfLifeHours;
+    private final int maxCandidates;
+
+    private final Timer candidateLatency;
+    private final Timer hydrateLatency;
+    private final DistributionSummary candidateCount;
+
+    public SeekerFeedRanker(
+            CustomTaskRepository customTaskRepository,
+            MeterRegistry meterRegistry,
+            @Value("${snaptask.ranking.weights.skill:0.35}") double skillWeight,
+            @Value("${snaptask.ranking.weights.distance:0.2}") double distanceWeight,
+            @Value("${snaptask.ranking.weights.budget:0.15}") double budgetWeight,
+            @Value("${snaptask.ranking.weights.recency:0.2}") double recencyWeight,
+            @Value("${snaptask.ranking.weights.competition:0.1}") double competitionWeight,
+            @Value("${snaptask.ranking.radius-km:10}") double radiusKm,
+            @Value("${snaptask.ranking.budget-pivot:500}") double budgetPivot,
+            @Value("${snaptask.ranking.recency-half-life-hours:24}") double recencyHalfLifeHours,
+            @Value("${snaptask.ranking.max-candidates:5000}") int maxCandidates
+    ) {
+        this.customTaskRepository = customTaskRepository;
+        this.skillWeight = skillWeight;
+        this.distanceWeight = distanceWeight;
+        this.budgetWeight = budgetWeight;
+        this.recencyWeight = recencyWeight;
+        this.competitionWeight = competitionWeight;
+        this.radiusKm = radiusKm;
+        this.budgetPivot = budgetPivot;
+        this.recencyHalfLifeHours = recencyHalfLifeHours;
+        this.maxCandidates = maxCandidates;
+
+        this.candidateLatency = stageTimer(meterRegistry, "rank");
+        this.hydrateLatency = stageTimer(meterRegistry, "hydrate");
+        this.candidateCount = DistributionSummary.builder("snaptask.for_you.candidates")
+                .description("Open tasks scored for one for-you page")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The next k tasks for the seeker after the cursor, best first.
+     *
+     * @param after cursor of the last task of the previous page, or null for the first page
+     */
+    public RankedPage rank(User seeker, PageCursor after, int k) {
+        FeedPosition position = after != null ? FeedPosition.decode(after) : null;
+        long rankedAtMillis = position != null ? position.rankedAtMillis() : System.currentTimeMillis();
+        LocalDateTime rankedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(rankedAtMillis), ZoneId.systemDefault());
+
+        Set<String> skills = seeker.getSkills() != null ? new HashSet<>(seeker.getSkills()) : Set.of();
+        GeoJsonPoint location = seeker.getGeoJsonPoint();
+
+        // Min-heap on ranking order: the head is the weakest of the current top k and is evicted first
+        PriorityQueue<RankedTask> top = new PriorityQueue<>(k + 1, RANKING_ORDER.reversed());
+        long scanned = candidateLatency.record(() -> customTaskRepository.streamOpenTaskCandidates(
+                skills, location, radiusKm, maxCandidates, task -> {
+                    RankedTask ranked = new RankedTask(task, score(task, skills, location, rankedAt));
+                    if (position != null && !position.isBefore(ranked)) {
+                        return;
+                    }
+                    top.offer(ranked);
+                    if (top.size() > k) {
+                        top.poll();
+                    }
+                }));
+        candidateCount.record(scanned);
+
+        List<RankedTask> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING_ORDER);
+        log.debug("Ranked {} candidates for seeker {} into {} tasks", scanned, seeker.getId(), ranked.size());
+        return new RankedPage(ranked, rankedAtMillis);
+    }
+
+    /**
+     * Times turning a ranked page into response rows.
+     */
+    public <T> T hydrate(Supplier<T> hydration) {
+        return hydrateLatency.record(hydration);
+    }
+
+    public static PageCursor cursorAfter(RankedTask last, long rankedAtMillis) {
+        return new PageCursor(last.score() + ":" + rankedAtMillis, last.task().getId());
+    }
+
+    private double score(Task task, Set<String> skills, GeoJsonPoint location, LocalDateTime rankedAt) {
+        double skill = skills.contains(task.getCategory()) ? 1 : 0;
+
+        double distance;
+        if (task.getMode() == WorkMode.REMOTE || task.getLocation() == null || location == null) {
+            // location does not matter for remote work; rank it as a mid-range ONSITE task
+            distance = 0.5;
+        } else {
+            double km = GeoHash.distanceKm(location.getY(), location.getX(), task.getLocation().getY(), task.getLocation().getX());
+            distance = Math.max(0, 1 - km / radiusKm);
+        }
+
+        double budgetAmount = task.getBudget() != null ? Math.max(0, task.getBudget()) : 0;
+        double budget = budgetAmount / (budgetAmount + budgetPivot);
+
+        double recency = 0;
+        if (task.getPostedOn() != null) {
+            double ageHours = Math.max(0, Duration.between(task.getPostedOn(), rankedAt).toMinutes() / 60.0);
+            recency = Math.pow(0.5, ageHours / recencyHalfLifeHours);
+        }
+
+        double competition = 1.0 / (1 + Math.max(0, task.getBidsCount()));
+
+        return skillWeight * skill
+                + distanceWeight * distance
+                + budgetWeight * budget
+                + recencyWeight * recency
+                + competitionWeight * competition;
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("snaptask.for_you.stage")
+                .description("Time spent in one stage of building a for-you page")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    public record RankedTask(Task task, double score) {
+    }
+
+    public record RankedPage(List<RankedTask> tasks, long rankedAtMillis) {
+    }
+
+    private record FeedPosition(double score, String id, long rankedAtMillis) {
+
+        static FeedPosition decode(PageCursor cursor) {
+            String[] parts = cursor.sortValue().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid page cursor.");
+            }
+            try {
+                return new FeedPosition(Double.parseDouble(parts[0]), cursor.id(), Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page cursor.", e);
+            }
+        }
+
+        /**
+         * True if this position ranks ahead of the task, i.e. the task belongs on a later page.
+         */
+        boolean isBefore(RankedTask ranked) {
+            return ranked.score() < score
+                    || (ranked.score() == score && ranked.task().getId().compareTo(id) > 0);
+        }
+    }
+}
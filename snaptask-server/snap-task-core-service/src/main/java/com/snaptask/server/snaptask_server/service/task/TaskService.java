@@ -1,9 +1,9 @@
 package com.snaptask.server.snaptask_server.service.task;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.firebase.messaging.*;
 import com.snaptask.server.snaptask_server.dto.bid.AssignedBidInfoDto;
 import com.snaptask.server.snaptask_server.dto.bid.PosterBidSummaryDto;
+import com.snaptask.server.snaptask_server.dto.common.CursorPageDto;
 import com.snaptask.server.snaptask_server.dto.notification.FCMNotificationDto;
 import com.snaptask.server.snaptask_server.dto.task.*;
 import com.snaptask.server.snaptask_server.enums.*;
@@ -13,13 +13,18 @@ import com.snaptask.server.snaptask_server.modals.Task;
 import com.snaptask.server.snaptask_server.modals.User;
 import com.snaptask.server.snaptask_server.modals.embedded.CompletionDetail;
 import com.snaptask.server.snaptask_server.repository.bid.BidRepository;
-import com.snaptask.server.snaptask_server.repository.notification.NotificationRepository;
+import com.snaptask.server.snaptask_server.repository.bid.CustomBidRepository;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
 import com.snaptask.server.snaptask_server.repository.task.TaskRepository;
 import com.snaptask.server.snaptask_server.repository.user.UserRepository;
-import com.snaptask.server.snaptask_server.service.ExpoPushService;
 import com.snaptask.server.snaptask_server.service.FirebaseService;
+import com.snaptask.server.snaptask_server.service.notification.NotificationPublisher;
+import com.snaptask.server.snaptask_server.service.notification.TaskFanOutPipeline;
 import com.snaptask.server.snaptask_server.util.Helper;
+import com.snaptask.server.snaptask_server.util.PageCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Metrics;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
@@ -27,11 +32,10 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import com.snaptask.server.snaptask_server.modals.Notification;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -47,108 +51,72 @@ public class TaskService {
     private final Helper helper;
     private final UserRepository userRepository;
     private final BidRepository bidRepository;
+    private final CustomBidRepository customBidRepository;
     private final FirebaseService fcmService;
-    private final ExpoPushService expoPushService;
-    private final NotificationRepository notificationRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final CustomTaskRepository customTaskRepository;
+    private final OpenTaskIndex openTaskIndex;
+    private final TaskFanOutPipeline taskFanOutPipeline;
+    private final PosterTaskDetailLoader posterTaskDetailLoader;
+    private final SeekerFeedRanker seekerFeedRanker;
+    private final TransactionOperations mongoTransactions;
+    private final int defaultFeedPageSize;
+    private final int maxFeedPageSize;
+    private final double defaultNearbyRadiusKm;
+    private final double maxNearbyRadiusKm;
+    private final int defaultPosterPageSize;
+    private final int maxPosterPageSize;
 
-//    jsut for testing
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
     public TaskService(
             TaskRepository taskRepository,
             Helper helper,
             UserRepository userRepository,
             BidRepository bidRepository,
+            CustomBidRepository customBidRepository,
             FirebaseService firebaseService,
-            NotificationRepository notificationRepository,
-            ExpoPushService expoPushService
+            NotificationPublisher notificationPublisher,
+            CustomTaskRepository customTaskRepository,
+            OpenTaskIndex openTaskIndex,
+            TaskFanOutPipeline taskFanOutPipeline,
+            PosterTaskDetailLoader posterTaskDetailLoader,
+            SeekerFeedRanker seekerFeedRanker,
+            TransactionOperations mongoTransactions,
+            @Value("${snaptask.feed.default-page-size:20}") int defaultFeedPageSize,
+            @Value("${snaptask.feed.max-page-size:100}") int maxFeedPageSize,
+            @Value("${snaptask.feed.nearby.default-radius-km:10}") double defaultNearbyRadiusKm,
+            @Value("${snaptask.feed.nearby.max-radius-km:50}") double maxNearbyRadiusKm,
+            @Value("${snaptask.poster-dashboard.default-page-size:20}") int defaultPosterPageSize,
+            @Value("${snaptask.poster-dashboard.max-page-size:100}") int maxPosterPageSize
     ){
         this.taskRepository = taskRepository;
         this.helper = helper;
         this.userRepository = userRepository;
         this.bidRepository = bidRepository;
+        this.customBidRepository = customBidRepository;
         this.fcmService = firebaseService;
-        this.notificationRepository = notificationRepository;
-        this.expoPushService = expoPushService;
-    }
-
-    @Transactional
-    @Async
-    public void notifySeekersForTask(Task task, GeoJsonPoint posterLocation) {
-        if (task == null) {
-            log.warn("Task is null, skipping notifications");
-            return;
-        }
-
-        try {
-            List<User> targetSeekers = helper.findEligibleSeekers(task, posterLocation);
-
-            if (targetSeekers.isEmpty()) {
-                log.info("No seekers to notify for task {}", task.getId());
-                return;
-            }
-
-            // 🔹 Collect Expo tokens and receiver IDs
-            List<String> expoTokens = targetSeekers.stream()
-                    .map(User::getFcmToken) // 👈 ensure you have this field in User
-                    .filter(token -> token != null && !token.isBlank())
-                    .distinct()
-                    .toList();
-
-            List<String> receiverIds = targetSeekers.stream()
-                    .map(User::getId)
-                    .distinct()
-                    .toList();
-
-            if (expoTokens.isEmpty()) {
-                log.info("No valid Expo push tokens found for task {}", task.getId());
-                return;
-            }
-
-            // 🔹 Save single notification record
-            Notification notification = Notification.builder()
-                    .senderId(helper.getCurrentLoggedInUser().getId())
-                    .posterName(helper.getCurrentLoggedInUser().getName())
-                    .receiverIds(receiverIds)
-                    .taskId(task.getId())
-                    .taskTitle(task.getTitle())
-                    .message("A new task matching your skills is available!")
-                    .budget(task.getBudget() != null ? String.valueOf(task.getBudget()) : null)
-                    .deadline(task.getDeadline() != null ? task.getDeadline().toString() : null)
-                    .type(NotificationType.BID)
-                    .status(NotificationStatus.NEW)
-                    .isSeen(false)
-                    .build();
-
-            notificationRepository.save(notification);
-            log.info("Saved broadcast notification for task {} with {} seekers", task.getId(), receiverIds.size());
-
-            // 🔹 Prepare payload
-            String title = "New Task Available!";
-            String body = task.getTitle() + " - " + task.getCategory();
-            Map<String, Object> data = Map.of(
-                    "taskId", task.getId(),
-                    "taskTitle", task.getTitle(),
-                    "taskCategory", task.getCategory(),
-                    "type", NotificationType.BID.name(),
-                    "notificationId", notification.getId()
-            );
-
-            // 🔹 Send Expo push notifications directly — no need for another async layer
-            final int batchSize = 100;
-            for (int i = 0; i < expoTokens.size(); i += batchSize) {
-                List<String> batch = expoTokens.subList(i, Math.min(i + batchSize, expoTokens.size()));
-                expoPushService.sendBatchNotifications(batch, title, body, data);
-            }
-
-            log.info(" Expo push dispatch started for task {} ({} total tokens)", task.getId(), expoTokens.size());
-
-        } catch (Exception e) {
-            log.error("Unexpected error while notifying seekers for task {}: {}", task.getId(), e.getMessage(), e);
-        }
+        this.notificationPublisher = notificationPublisher;
+        this.customTaskRepository = customTaskRepository;
+        this.openTaskIndex = openTaskIndex;
+        this.taskFanOutPipeline = taskFanOutPipeline;
+        this.posterTaskDetailLoader = posterTaskDetailLoader;
+        this.seekerFeedRanker = seekerFeedRanker;
+        this.mongoTransactions = mongoTransactions;
+        this.defaultFeedPageSize = defaultFeedPageSize;
+        this.maxFeedPageSize = maxFeedPageSize;
+        this.defaultNearbyRadiusKm = defaultNearbyRadiusKm;
+        this.maxNearbyRadiusKm = maxNearbyRadiusKm;
+        this.defaultPosterPageSize = defaultPosterPageSize;
+        this.maxPosterPageSize = maxPosterPageSize;
     }
 
     public ResponseEntity<String> createTask(CreateTaskDto dto) {
+        User poster = helper.getCurrentLoggedInUser();
+        GeoJsonPoint location = null;
+        if (dto.getMode() == WorkMode.ONSITE) {
+            location = dto.getLatitude() != null
+                    ? new GeoJsonPoint(dto.getLongitude(), dto.getLatitude())
+                    : poster.getGeoJsonPoint();
+        }
         Task task = Task.builder()
                 .title(dto.getTitle().trim())
                 .description(dto.getDescription().trim())
@@ -158,7 +126,9 @@ public class TaskService {
                 .budget(dto.getBudget())
                 .status(TaskStatus.ACTIVE)
                 .mode(dto.getMode())
-                .posterId(helper.getCurrentLoggedInUser().getId())
+                .location(location)
+                .radiusKm(dto.getMode() == WorkMode.ONSITE ? dto.getRadiusKm() : null)
+                .posterId(poster.getId())
                 .bidIds(List.of())
                 .bidsCount(0)
                 .postedOn(LocalDateTime.now())
@@ -167,7 +137,7 @@ public class TaskService {
                 .build();
         Task savedTask = taskRepository.save(task);
 
-        notifySeekersForTask(savedTask,helper.getCurrentLoggedInUser().getGeoJsonPoint());
+        taskFanOutPipeline.submit(savedTask, poster);
         return ResponseEntity.status(HttpStatus.CREATED).body("Task created successfully");
     }
 
@@ -180,7 +150,8 @@ public class TaskService {
         Task task = taskRepository.findById(dto.getTaskId())
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + dto.getTaskId()));
 
-        String currentUserId = helper.getCurrentLoggedInUser().getId();
+        User currentUser = helper.getCurrentLoggedInUser();
+        String currentUserId = currentUser.getId();
 
         if (!task.getPosterId().equals(currentUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not allowed to update this task");
@@ -194,57 +165,49 @@ public class TaskService {
         if (dto.getDeadline() != null) task.setDeadline(dto.getDeadline());
         task.setUpdatedAt(LocalDateTime.now());
 
-        taskRepository.save(task);
-        log.info("Task {} updated successfully by poster {}", task.getId(), currentUserId);
-
-        //  Notify assigned seeker only if exists
-        if (task.getAssignedSeekerId() != null) {
-            Optional<User> seekerOpt = userRepository.findById(task.getAssignedSeekerId());
-            if (seekerOpt.isPresent()) {
-                User seeker = seekerOpt.get();
+        // Resolve the assigned seeker before writing so the update, its notification and the push commit together
+        User seeker = task.getAssignedSeekerId() != null
+                ? userRepository.findById(task.getAssignedSeekerId()).orElse(null)
+                : null;
 
-                // ---  Save Notification record ---
-                Notification notification = Notification.builder()
-                        .receiverIds(List.of(seeker.getId()))
-                        .senderId(currentUserId)
-                        .senderName(helper.getCurrentLoggedInUser().getName())
-                        .posterName(helper.getCurrentLoggedInUser().getName())
-                        .posterRating(helper.getCurrentLoggedInUser().getRating()) // optional
-                        .taskId(task.getId())
-                        .taskTitle(task.getTitle())
-                        .type(NotificationType.UPDATE)
-                        .status(NotificationStatus.NEW)
-                        .targetRole(UserRole.SEEKER)
-                        .userRole(UserRole.POSTER)
-                        .message("Poster has updated your assigned task. Please review the new details.")
-                        .budget(task.getBudget() != null ? String.valueOf(task.getBudget()) : null)
-                        .deadline(task.getDeadline() != null ? task.getDeadline().toString() : null)
-                        .isSeen(false)
-                        .build();
+        mongoTransactions.executeWithoutResult(tx -> {
+            taskRepository.save(task);
+            log.info("Task {} updated successfully by poster {}", task.getId(), currentUserId);
 
-                notificationRepository.save(notification);
-                log.info("Saved update notification for seeker {} (taskId={})", seeker.getId(), task.getId());
+            //  Notify assigned seeker only if exists
+            if (seeker == null) {
+                return;
+            }
 
-                // ---Send Push Notification (async safe call) ---
-                CompletableFuture.runAsync(() -> {
-                    String title = "Task Updated!";
-                    String body = task.getTitle() + " has been updated by " + notification.getPosterName();
+            Notification notification = Notification.builder()
+                    .senderId(currentUserId)
+                    .senderName(currentUser.getName())
+                    .posterName(currentUser.getName())
+                    .posterRating(currentUser.getRating()) // optional
+                    .taskId(task.getId())
+                    .taskTitle(task.getTitle())
+                    .type(NotificationType.UPDATE)
+                    .status(NotificationStatus.NEW)
+                    .targetRole(UserRole.SEEKER)
+                    .userRole(UserRole.POSTER)
+                    .message("Poster has updated your assigned task. Please review the new details.")
+                    .budget(task.getBudget() != null ? String.valueOf(task.getBudget()) : null)
+                    .deadline(task.getDeadline() != null ? task.getDeadline().toString() : null)
+                    .isSeen(false)
+                    .build();
 
-                    Map<String, Object> data = Map.of(
+            notificationPublisher.publishWithPush(
+                    notification,
+                    seeker.getId(),
+                    "Task Updated!",
+                    task.getTitle() + " has been updated by " + currentUser.getName(),
+                    Map.of(
                             "taskId", task.getId(),
-                            "notificationId", notification.getId(),
                             "type", NotificationType.UPDATE.name()
-                    );
-
-                    expoPushService.sendNotification(
-                            seeker.getFcmToken(),
-                            title,
-                            body,
-                            data
-                    );
-                });
-            }
-        }
+                    )
+            );
+            log.info("Saved update notification and queued push for seeker {} (taskId={})", seeker.getId(), task.getId());
+        });
 
         return ResponseEntity.ok("Task updated successfully");
     }
@@ -252,14 +215,14 @@ public class TaskService {
     @Transactional
     public ResponseEntity<?> deleteTask(DeleteTaskDto dto) {
 
-        User currentUser = helper.getCurrentLoggedInUser();
+        String currentUserId = helper.getCurrentUserId();
         String taskId = dto.getTaskId();
 
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with id " + taskId + " not found"));
 
 
-        if (!task.getPosterId().equals(currentUser.getId())) {
+        if (!task.getPosterId().equals(currentUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
                     Map.of(
                             "message", "You are not authorized to delete this task",
@@ -279,7 +242,7 @@ public class TaskService {
         }
 
         bidRepository.deleteAllByTaskId(taskId);
-        notificationRepository.deleteAllByTaskId(taskId);
+        notificationPublisher.deleteByTaskId(taskId);
         taskRepository.delete(task);
 
         return ResponseEntity.ok(
@@ -291,18 +254,51 @@ public class TaskService {
     }
 
 
-    @Transactional(readOnly = true)
     public ResponseEntity<PosterTasksGroupedDto> getPosterTasksSummary() {
-        String posterId = helper.getCurrentLoggedInUser().getId();
-
-        List<Task> tasks = taskRepository.findByPosterId(posterId);
+        String posterId = helper.getCurrentUserId();
 
-        if (tasks.isEmpty()) {
+        CustomTaskRepository.PosterDashboard dashboard = customTaskRepository.findPosterDashboard(posterId, defaultPosterPageSize);
+        if (dashboard.counts().isEmpty()) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         }
 
-        // Map tasks to DTOs first (efficient)
-        List<PosterTaskSummaryDto> taskDtos = tasks.stream()
+        Map<TaskStatus, CursorPageDto<PosterTaskSummaryDto>> groups = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : CustomTaskRepository.POSTER_DASHBOARD_STATUSES) {
+            List<Task> firstPage = dashboard.firstPages().getOrDefault(status, List.of());
+            boolean hasMore = dashboard.counts().getOrDefault(status, 0L) > firstPage.size();
+            groups.put(status, toPosterTaskPage(firstPage, hasMore));
+        }
+
+        PosterTasksGroupedDto groupedDto = PosterTasksGroupedDto.builder()
+                .active(groups.get(TaskStatus.ACTIVE).getItems())
+                .pending(groups.get(TaskStatus.PENDING).getItems())
+                .completed(groups.get(TaskStatus.COMPLETED).getItems())
+                .activeCount(dashboard.counts().getOrDefault(TaskStatus.ACTIVE, 0L))
+                .pendingCount(dashboard.counts().getOrDefault(TaskStatus.PENDING, 0L))
+                .completedCount(dashboard.counts().getOrDefault(TaskStatus.COMPLETED, 0L))
+                .activeNextCursor(groups.get(TaskStatus.ACTIVE).getNextCursor())
+                .pendingNextCursor(groups.get(TaskStatus.PENDING).getNextCursor())
+                .completedNextCursor(groups.get(TaskStatus.COMPLETED).getNextCursor())
+                .build();
+
+        return ResponseEntity.ok(groupedDto);
+    }
+
+    public ResponseEntity<CursorPageDto<PosterTaskSummaryDto>> getPosterTasksByStatus(TaskStatus status, String cursor, Integer size) {
+        String posterId = helper.getCurrentUserId();
+        int pageSize = helper.resolvePageSize(size, defaultPosterPageSize, maxPosterPageSize);
+
+        // one extra row tells us whether another page exists
+        List<Task> tasks = customTaskRepository.findPosterTasksByStatus(posterId, status, PageCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = tasks.size() > pageSize;
+        if (hasMore) {
+            tasks = tasks.subList(0, pageSize);
+        }
+        return ResponseEntity.ok(toPosterTaskPage(tasks, hasMore));
+    }
+
+    private CursorPageDto<PosterTaskSummaryDto> toPosterTaskPage(List<Task> tasks, boolean hasMore) {
+        List<PosterTaskSummaryDto> items = tasks.stream()
                 .map(task -> PosterTaskSummaryDto.builder()
                         .id(task.getId())
                         .title(task.getTitle())
@@ -316,34 +312,32 @@ public class TaskService {
                         .build())
                 .toList();
 
-        // Group by status
-        Map<TaskStatus, List<PosterTaskSummaryDto>> grouped = taskDtos.stream()
-                .collect(Collectors.groupingBy(PosterTaskSummaryDto::getStatus));
-
-        PosterTasksGroupedDto groupedDto = PosterTasksGroupedDto.builder()
-                .active(grouped.getOrDefault(TaskStatus.ACTIVE, List.of()))
-                .pending(grouped.getOrDefault(TaskStatus.PENDING, List.of()))
-                .completed(grouped.getOrDefault(TaskStatus.COMPLETED, List.of()))
+        String nextCursor = null;
+        if (hasMore && !tasks.isEmpty()) {
+            Task last = tasks.get(tasks.size() - 1);
+            nextCursor = new PageCursor(last.getPostedOn().toString(), last.getId()).encode();
+        }
+        return CursorPageDto.<PosterTaskSummaryDto>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
                 .build();
-
-        return ResponseEntity.ok(groupedDto);
     }
 
-    @Transactional(readOnly = true)
     public ResponseEntity<PosterTaskDetailDto> getPosterTaskDetails(String taskId) {
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+        CustomTaskRepository.PosterTaskDetail detail = posterTaskDetailLoader.load(taskId);
+        if (detail == null) {
+            throw new ResourceNotFoundException("Task not found with ID: " + taskId);
+        }
+        Task task = detail.task();
 
-        String currentUserId = helper.getCurrentLoggedInUser().getId();
+        String currentUserId = helper.getCurrentUserId();
         if (!task.getPosterId().equals(currentUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        // Fetch Bids
-        List<Bid> bids = bidRepository.findByTaskId(taskId);
-
-        List<PosterBidSummaryDto> bidDtos = bids.stream()
+        List<PosterBidSummaryDto> bidDtos = detail.bids().stream()
                 .map(bid -> PosterBidSummaryDto.builder()
                         .id(bid.getId())
                         .seekerName(bid.getSeekerName())
@@ -355,21 +349,19 @@ public class TaskService {
                         .build()
                 ).toList();
 
-        // Assigned Bid
         AssignedBidInfoDto assignedBidInfo = null;
-        if (task.getAssignedBidId() != null) {
-            assignedBidInfo = bidRepository.findById(task.getAssignedBidId())
-                    .map(bid -> AssignedBidInfoDto.builder()
-                            .bidId(bid.getId())
-                            .seekerId(bid.getSeekerId())
-                            .seekerName(bid.getSeekerName())
-                            .tagline(bid.getTagline())
-                            .seekerRating(bid.getRating())
-                            .bidAmount(bid.getBidAmount())
-                            .proposal(bid.getProposal())
-                            .seekerCompletedTasks(bid.getCompletedTasks())
-                            .build()
-                    ).orElse(null);
+        Bid assignedBid = detail.assignedBid();
+        if (assignedBid != null) {
+            assignedBidInfo = AssignedBidInfoDto.builder()
+                    .bidId(assignedBid.getId())
+                    .seekerId(assignedBid.getSeekerId())
+                    .seekerName(assignedBid.getSeekerName())
+                    .tagline(assignedBid.getTagline())
+                    .seekerRating(assignedBid.getRating())
+                    .bidAmount(assignedBid.getBidAmount())
+                    .proposal(assignedBid.getProposal())
+                    .seekerCompletedTasks(assignedBid.getCompletedTasks())
+                    .build();
         }
 
         // Completion Request Mapping
@@ -405,7 +397,7 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-        String currentUserId = helper.getCurrentLoggedInUser().getId();
+        String currentUserId = helper.getCurrentUserId();
         if (!task.getPosterId().equals(currentUserId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
                     Map.of(
@@ -451,58 +443,164 @@ public class TaskService {
     }
 
 
-    public void sendPushNotification(String expoToken, String title, String body) {
-        try {
-            // Prepare payload
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("to", expoToken);
-            payload.put("sound", "default");
-            payload.put("title", title);
-            payload.put("body", body);
-            payload.put("priority", "high");
+//    ----------------------------------------
+    /**
+     * Legacy list endpoint: returns only the newest page, capped at the max feed page size.
+     * Clients that need more should page through {@link #getSeekerTaskFeed}.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getSeekerTaskSummery(String category) {
+        return ResponseEntity.ok(loadSeekerTaskPage(category, null, maxFeedPageSize).getItems());
+    }
 
-            // Convert map to JSON string
-            String jsonBody = objectMapper.writeValueAsString(payload);
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDto<SeekerTaskSummery>> getSeekerTaskFeed(String category, String cursor, Integer size) {
+        int pageSize = helper.resolvePageSize(size, defaultFeedPageSize, maxFeedPageSize);
+        return ResponseEntity.ok(loadSeekerTaskPage(category, PageCursor.decode(cursor), pageSize));
+    }
+
+    private CursorPageDto<SeekerTaskSummery> loadSeekerTaskPage(String category, PageCursor after, int pageSize) {
+        String seekerId = helper.getCurrentUserId();
 
-            // Create headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        // Step 1: Fetch one page of open tasks (one extra row tells us whether another page exists),
+        // from the in-memory index when it is fresh, otherwise from Mongo
+        List<Task> tasks = openTaskIndex.findOpenTasksByCategory(category, after, pageSize + 1)
+                .orElseGet(() -> customTaskRepository.findOpenTasksByCategory(category, after, pageSize + 1));
+        boolean hasMore = tasks.size() > pageSize;
+        if (hasMore) {
+            tasks = tasks.subList(0, pageSize);
+        }
+        log.info("getSeekerTaskSummery() called: category={}, pageTasks={}, hasMore={}", category, tasks.size(), hasMore);
 
-            // Create request
-            HttpEntity<String> request = new HttpEntity<>(jsonBody, headers);
+        if (tasks.isEmpty()) {
+            return CursorPageDto.<SeekerTaskSummery>builder()
+                    .items(Collections.emptyList())
+                    .hasMore(false)
+                    .build();
+        }
 
-            // Send request
-            ResponseEntity<String> response = restTemplate.postForEntity("https://exp.host/--/api/v2/push/send", request, String.class);
+        List<SeekerTaskSummery> summaries = toSeekerSummaries(tasks, seekerId);
+
+        Task last = tasks.get(tasks.size() - 1);
+        return CursorPageDto.<SeekerTaskSummery>builder()
+                .items(summaries)
+                .nextCursor(hasMore ? new PageCursor(last.getPostedOn().toString(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Open ONSITE tasks near the seeker, nearest first, optionally narrowed to a category and a map viewport.
+     * Centred on the given point, or on the seeker's saved location when none is given.
+     *
+     * @param box optional viewport as {minLng, minLat, maxLng, maxLat}
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getNearbySeekerTasks(Double latitude, Double longitude, Double radiusKm, String category,
+                                                  double[] box, String cursor, Integer size) {
+        User seeker = helper.getCurrentLoggedInUser();
+        if (latitude == null || longitude == null) {
+            if (seeker.getGeoJsonPoint() == null) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Set your location or pass latitude and longitude."));
+            }
+            latitude = seeker.getGeoJsonPoint().getY();
+            longitude = seeker.getGeoJsonPoint().getX();
+        }
+        double radius = radiusKm != null
+                ? Math.max(0.1, Math.min(radiusKm, maxNearbyRadiusKm))
+                : defaultNearbyRadiusKm;
+        int pageSize = helper.resolvePageSize(size, defaultFeedPageSize, maxFeedPageSize);
+        String categoryFilter = category != null && !category.isBlank() ? category.trim() : null;
+
+        List<CustomTaskRepository.NearbyTask> nearby = customTaskRepository.findNearbyOpenTasks(
+                latitude, longitude, radius, categoryFilter, box, PageCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = nearby.size() > pageSize;
+        if (hasMore) {
+            nearby = nearby.subList(0, pageSize);
+        }
+        log.info("getNearbySeekerTasks() called: radiusKm={}, category={}, pageTasks={}, hasMore={}", radius, categoryFilter, nearby.size(), hasMore);
 
-            System.out.println("✅ Expo push response: " + response.getBody());
-        } catch (Exception e) {
-            System.err.println("❌ Failed to send Expo push notification: " + e.getMessage());
+        List<SeekerTaskSummery> summaries = toSeekerSummaries(
+                nearby.stream().map(CustomTaskRepository.NearbyTask::task).toList(), seeker.getId());
+        for (int i = 0; i < summaries.size(); i++) {
+            summaries.get(i).setDistanceKm(nearby.get(i).distanceMeters() / 1000);
         }
+
+        CustomTaskRepository.NearbyTask last = nearby.isEmpty() ? null : nearby.get(nearby.size() - 1);
+        return ResponseEntity.ok(CursorPageDto.<SeekerTaskSummery>builder()
+                .items(summaries)
+                .nextCursor(hasMore ? new PageCursor(Double.toString(last.distanceMeters()), last.task().getId()).encode() : null)
+                .hasMore(hasMore)
+                .build());
     }
 
+    /**
+     * Open tasks ranked for the current seeker across all their skills and their surroundings, best first.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDto<SeekerTaskSummery>> getForYouFeed(String cursor, Integer size) {
+        User seeker = helper.getCurrentLoggedInUser();
+        int pageSize = helper.resolvePageSize(size, defaultFeedPageSize, maxFeedPageSize);
 
-//    ----------------------------------------
+        SeekerFeedRanker.RankedPage page = seekerFeedRanker.rank(seeker, PageCursor.decode(cursor), pageSize + 1);
+        List<SeekerFeedRanker.RankedTask> ranked = page.tasks();
+        boolean hasMore = ranked.size() > pageSize;
+        if (hasMore) {
+            ranked = ranked.subList(0, pageSize);
+        }
+        log.info("getForYouFeed() called: seeker={}, pageTasks={}, hasMore={}", seeker.getId(), ranked.size(), hasMore);
+
+        List<Task> tasks = ranked.stream().map(SeekerFeedRanker.RankedTask::task).toList();
+        List<SeekerTaskSummery> summaries = seekerFeedRanker.hydrate(() -> toSeekerSummaries(tasks, seeker.getId()));
+
+        return ResponseEntity.ok(CursorPageDto.<SeekerTaskSummery>builder()
+                .items(summaries)
+                .nextCursor(hasMore ? SeekerFeedRanker.cursorAfter(ranked.get(ranked.size() - 1), page.rankedAtMillis()).encode() : null)
+                .hasMore(hasMore)
+                .build());
+    }
+
+    /**
+     * Keyword search over task title, category and description, most relevant first.
+     */
     @Transactional(readOnly = true)
-    public ResponseEntity<?> getSeekerTaskSummery(String category) {
-        var currentUser = helper.getCurrentLoggedInUser();
-        String seekerId = currentUser.getId();
+    public ResponseEntity<CursorPageDto<SeekerTaskSummery>> searchTasks(String query, TaskStatus status, WorkMode mode,
+                                                                        String cursor, Integer size) {
+        String seekerId = helper.getCurrentUserId();
+        int pageSize = helper.resolvePageSize(size, defaultFeedPageSize, maxFeedPageSize);
+
+        List<CustomTaskRepository.ScoredTask> matches = customTaskRepository.searchTasks(
+                query.trim(), status, mode, PageCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = matches.size() > pageSize;
+        if (hasMore) {
+            matches = matches.subList(0, pageSize);
+        }
+        log.info("searchTasks() called: query={}, status={}, mode={}, pageTasks={}, hasMore={}", query, status, mode, matches.size(), hasMore);
+
+        List<SeekerTaskSummery> summaries = toSeekerSummaries(
+                matches.stream().map(CustomTaskRepository.ScoredTask::task).toList(), seekerId);
 
-        // Step 1: Fetch all unassigned tasks for the given category
-        List<Task> tasks = taskRepository.findByCategoryAndIsAssignedFalse(category);
-        log.info("getSeekerTaskSummery() called: category={}, foundTasks={}", category, tasks.size());
+        CustomTaskRepository.ScoredTask last = matches.isEmpty() ? null : matches.get(matches.size() - 1);
+        return ResponseEntity.ok(CursorPageDto.<SeekerTaskSummery>builder()
+                .items(summaries)
+                .nextCursor(hasMore ? new PageCursor(Double.toString(last.score()), last.task().getId()).encode() : null)
+                .hasMore(hasMore)
+                .build());
+    }
 
+    private List<SeekerTaskSummery> toSeekerSummaries(List<Task> tasks, String seekerId) {
         if (tasks.isEmpty()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return new ArrayList<>();
         }
 
-        // Step 2: Collect taskIds to minimize DB round-trips
+        // Collect taskIds to minimize DB round-trips
         List<String> taskIds = tasks.stream()
                 .map(Task::getId)
                 .filter(Objects::nonNull)
                 .distinct()
                 .toList();
 
-        // Step 3: Fetch all bids made by current seeker on these tasks
+        // Fetch the bids made by current seeker on this page only
         List<Bid> seekerBids = taskIds.isEmpty()
                 ? Collections.emptyList()
                 : bidRepository.findBySeekerIdAndTaskIdIn(seekerId, taskIds);
@@ -514,8 +612,7 @@ public class TaskService {
 
         log.debug("Seeker={} has made bids on taskIds={}", seekerId, biddedTaskIds);
 
-        // Step 4: Map tasks to DTOs
-        List<SeekerTaskSummery> summaries = tasks.stream()
+        return tasks.stream()
                 .map(task -> SeekerTaskSummery.builder()
                         .id(task.getId())
                         .title(task.getTitle())
@@ -530,15 +627,12 @@ public class TaskService {
                         .alredyMadebid(biddedTaskIds.contains(task.getId()))
                         .build())
                 .collect(Collectors.toList());
-
-        return ResponseEntity.ok(summaries);
     }
 
     @Transactional(readOnly = true)
     public ResponseEntity<?> getAssignedTasksForSeeker() {
         // Get the currently logged-in seeker
-        User seeker = helper.getCurrentLoggedInUser();
-        String seekerId = seeker.getId();
+        String seekerId = helper.getCurrentUserId();
         log.info("Fetching assigned tasks for seeker with ID: {}", seekerId);
 
         // Fetch all tasks assigned to this seeker
@@ -570,8 +664,7 @@ public class TaskService {
     @Transactional(readOnly = true)
     public ResponseEntity<?> getCompletedTasksForSeeker() {
         // Get the currently logged-in seeker
-        User seeker = helper.getCurrentLoggedInUser();
-        String seekerId = seeker.getId();
+        String seekerId = helper.getCurrentUserId();
         log.info("Fetching completed tasks for seeker with ID: {}", seekerId);
 
         // Fetch all completed tasks assigned to this seeker
@@ -620,12 +713,11 @@ public class TaskService {
         }
 
         User poster = posterOpt.get();
-        var currentUser = helper.getCurrentLoggedInUser();
-        String seekerId = currentUser.getId();
+        String seekerId = helper.getCurrentUserId();
 
         boolean alreadyMadeBid = bidRepository.existsByTaskIdAndSeekerId(task.getId(), seekerId);
         boolean isAssignedToMe = task.getAssignedSeekerId() != null
-                && task.getAssignedSeekerId().equals(currentUser.getId());
+                && task.getAssignedSeekerId().equals(seekerId);
 
         SeekerTaskDetail dto = SeekerTaskDetail.builder()
                 .id(task.getId())
@@ -659,21 +751,10 @@ public class TaskService {
 
     public ResponseEntity<?> makeBid(CreateBidDto createBidDto) {
         User seeker = helper.getCurrentLoggedInUser();
-        Optional<Task> optionalTask = taskRepository.findById(createBidDto.getTaskId());
-        if (optionalTask.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("message", "Task not found"));
-        }
-        Task task = optionalTask.get();
-
-        boolean alreadyBid = bidRepository.existsByTaskIdAndSeekerId(task.getId(), seeker.getId());
-        if (alreadyBid) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "You have already placed a bid on this task."));
-        }
+        String taskId = createBidDto.getTaskId();
 
         Bid bid = Bid.builder()
-                .taskId(task.getId())
+                .taskId(taskId)
                 .seekerId(seeker.getId())
                 .seekerName(seeker.getName())
                 .tagline(createBidDto.getTagline())
@@ -694,69 +775,93 @@ public class TaskService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        Bid savedBid = bidRepository.save(bid);
-
-        task.setBidIds(List.of(savedBid.getId()));
-        task.setBidsCount(task.getBidsCount()+1);
-        taskRepository.save(task);
-
-        Notification notification = Notification.builder()
-                .receiverIds(List.of(task.getPosterId()))
-                .senderId(seeker.getId())
-                .senderName(seeker.getName())
-                .taskId(task.getId())
-                .taskTitle(task.getTitle())
-                .message(seeker.getName() + " placed a new bid on your task \"" + task.getTitle() + "\".")
-                .type(NotificationType.BID)
-                .status(NotificationStatus.NEW)
-                .userRole(UserRole.SEEKER)
-                .targetRole(UserRole.POSTER)
-                .seekerName(seeker.getName())
-                .seekerRating(seeker.getRating())
-                .completedTasks(seeker.getCompletedTasks())
-                .bidAmount(String.valueOf(createBidDto.getBidAmount()))
-                .timeline(createBidDto.isCanCompleteInTime() ? "Can complete on time" : "May need more time")
-                .budget(task.getBudget().toString())
-                .deadline(task.getDeadline().toString())
-                .createdAt(Instant.now())
-                .build();
+        // Until BidDedupMigration has confirmed the unique (task_id, seeker_id) index, nothing else stops a second bid
+        if (!customBidRepository.hasTaskSeekerUniqueIndex()
+                && bidRepository.existsByTaskIdAndSeekerId(taskId, seeker.getId())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "You have already placed a bid on this task."));
+        }
 
+        // With transactions enabled the bid, its attachment to the task and the poster's notification with its push
+        // commit together; without them a failure after the insert is undone by hand below.
+        Task task;
         try {
-            notificationRepository.save(notification);
-        } catch (Exception e) {
-            log.error("Failed to save notification entity: {}", e.getMessage());
-        }
+            task = mongoTransactions.execute(tx -> {
+                // Once present, the unique (task_id, seeker_id) index is the duplicate check
+                Bid savedBid = bidRepository.insert(bid);
+
+                // Atomically attach the bid, only while the task is still open; concurrent bids never overwrite each other
+                Task open = customTaskRepository.addBid(taskId, savedBid.getId());
+                if (open == null) {
+                    bidRepository.deleteById(savedBid.getId());
+                    return null;
+                }
 
+                Notification notification = Notification.builder()
+                        .senderId(seeker.getId())
+                        .senderName(seeker.getName())
+                        .taskId(open.getId())
+                        .taskTitle(open.getTitle())
+                        .message(seeker.getName() + " placed a new bid on your task \"" + open.getTitle() + "\".")
+                        .type(NotificationType.BID)
+                        .status(NotificationStatus.NEW)
+                        .userRole(UserRole.SEEKER)
+                        .targetRole(UserRole.POSTER)
+                        .seekerName(seeker.getName())
+                        .seekerRating(seeker.getRating())
+                        .completedTasks(seeker.getCompletedTasks())
+                        .bidAmount(String.valueOf(createBidDto.getBidAmount()))
+                        .timeline(createBidDto.isCanCompleteInTime() ? "Can complete on time" : "May need more time")
+                        .budget(open.getBudget().toString())
+                        .deadline(open.getDeadline().toString())
+                        .createdAt(Instant.now())
+                        .build();
 
-        try {
-            Optional<User> posterOpt = userRepository.findById(task.getPosterId());
-            if (posterOpt.isPresent()) {
-                User poster = posterOpt.get();
-                if (poster.getFcmToken() != null && !poster.getFcmToken().isBlank()) {
-                    Map<String, Object> data = Map.of(
-                            "type", "BID",
-                            "taskId", task.getId(),
-                            "taskTitle", task.getTitle(),
-                            "bidId", bid.getId(),
-                            "seekerName", seeker.getName()
-                    );
-
-                    // @Async call → non-blocking
-                    expoPushService.sendNotification(
-                            poster.getFcmToken(),
-                            "New Bid Received 💼",
-                            seeker.getName() + " placed a new bid on your task \"" + task.getTitle() + "\".",
-                            data
-                    );
+                Map<String, Object> data = Map.of(
+                        "type", "BID",
+                        "taskId", open.getId(),
+                        "taskTitle", open.getTitle(),
+                        "bidId", savedBid.getId(),
+                        "seekerName", seeker.getName()
+                );
+
+                notificationPublisher.publishWithPush(
+                        notification,
+                        open.getPosterId(),
+                        "New Bid Received 💼",
+                        seeker.getName() + " placed a new bid on your task \"" + open.getTitle() + "\".",
+                        data
+                );
+                return open;
+            });
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "You have already placed a bid on this task."));
+        } catch (RuntimeException e) {
+            // Rolled back already when transactional; otherwise take the bid back off the task so the seeker can retry
+            if (bid.getId() != null) {
+                try {
+                    customTaskRepository.detachBid(taskId, bid.getId());
+                    bidRepository.deleteById(bid.getId());
+                } catch (RuntimeException cleanup) {
+                    log.error("Could not undo bid {} on task {} after a failed placement: {}", bid.getId(), taskId, cleanup.getMessage());
                 }
             }
-        } catch (Exception e) {
-            log.error("Failed to send Expo notification: {}", e.getMessage());
+            throw e;
+        }
+
+        if (task == null) {
+            if (!taskRepository.existsById(taskId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Task not found"));
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "This task is no longer accepting bids."));
         }
 
         return ResponseEntity.ok(Map.of(
                 "message", "Bid placed successfully!",
-                "bidId", savedBid.getId(),
+                "bidId", bid.getId(),
                 "taskId", task.getId()
         ));
     }
@@ -764,8 +869,8 @@ public class TaskService {
     @Transactional
     public ResponseEntity<?> markTaskAsCompleted(TaskCompletionRequest request) {
         log.info("Seeker {} attempting to mark task  as completed", request.getTaskId());
-        User user = helper.getCurrentLoggedInUser();
-        String seekerId = user.getId();
+        User seeker = helper.getCurrentLoggedInUser();
+        String seekerId = seeker.getId();
 
         Task task = taskRepository.findById(request.getTaskId()).orElse(null);
         if (task == null) {
@@ -790,10 +895,6 @@ public class TaskService {
         }
 
 
-        User seeker = userRepository.findById(seekerId)
-                .orElseThrow(() -> new RuntimeException("Seeker not found"));
-
-
         CompletionDetail completionDetail = CompletionDetail.builder()
                 .completed(true)
                 .note(request.getNote())
@@ -805,11 +906,8 @@ public class TaskService {
 
         task.setCompletionDetail(completionDetail);
         task.setUpdatedAt(LocalDateTime.now());
-        taskRepository.save(task);
-
 
         Notification notification = Notification.builder()
-                .receiverIds(List.of(task.getPosterId()))
                 .senderId(seekerId)
                 .senderName(seeker.getName())
                 .taskId(task.getId())
@@ -822,40 +920,28 @@ public class TaskService {
                 .extraInfo("Seeker " + seeker.getName() + " has marked the task as completed and submitted their work.")
                 .build();
 
-        notificationRepository.save(notification);
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "COMPLETION_REQUEST");
+        data.put("taskId", task.getId());
+        data.put("taskTitle", task.getTitle());
+        data.put("seekerName", seeker.getName());
+        data.put("taskStatus", task.getStatus().name());
+
+        mongoTransactions.executeWithoutResult(tx -> {
+            taskRepository.save(task);
+            notificationPublisher.publishWithPush(
+                    notification,
+                    task.getPosterId(),
+                    "✅ Task Marked as Completed",
+                    seeker.getName() + " has marked the task \"" + task.getTitle() + "\" as completed. Please review their submission and take action.",
+                    data
+            );
+        });
 
-        log.info("✅ Task {} marked as completed by seeker {}. Notification stored for poster {}",
+        log.info("✅ Task {} marked as completed by seeker {}. Notification stored and push queued for poster {}",
                 task.getId(), seekerId, task.getPosterId());
 
 
-        try {
-            userRepository.findById(task.getPosterId()).ifPresent(poster -> {
-                String token = poster.getFcmToken();
-                if (token != null && !token.isBlank()) {
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("type", "COMPLETION_REQUEST");
-                    data.put("taskId", task.getId());
-                    data.put("taskTitle", task.getTitle());
-                    data.put("seekerName", seeker.getName());
-                    data.put("taskStatus", task.getStatus().name());
-
-                    expoPushService.sendNotification(
-                            token,
-                            "✅ Task Marked as Completed",
-                            seeker.getName() + " has marked the task \"" + task.getTitle() + "\" as completed. Please review their submission and take action.",
-                            data
-                    );
-
-                    log.info("📩 Sent FCM completion notification to poster {} for task {}", poster.getEmail(), task.getId());
-                } else {
-                    log.warn("⚠️ Poster {} has no valid FCM token", poster.getEmail());
-                }
-            });
-        } catch (Exception e) {
-            log.error("❌ Failed to send completion request notification for task {}: {}", task.getId(), e.getMessage());
-        }
-
-
         return ResponseEntity.ok(Map.of(
                 "message", "Task marked as completed successfully",
                 "taskId", task.getId(),
@@ -0,0 +1,356 @@
+package com.snaptask.server.snaptask_server.service.user;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.snaptask.server.snaptask_server.enums.UserRole;
+import com.snaptask.server.snaptask_server.modals.User;
+import com.snaptask.server.snaptask_server.util.ChangeStreamWatcher;
+import com.snaptask.server.snaptask_server.util.GeoHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process matching index over seekers, used to start a task fan-out without scanning the users collection.
+ *
+ * Every seeker gets a dense ordinal, and each skill maps to a bitset of the ordinals that have it, so
+ * "seekers with any of these skills" is a union of a few bitsets and "with all of them" an intersection.
+ * Locations are bucketed the same way by geohash cell: a radius query unions the bitsets of the cells covering
+ * the circle and keeps the candidates actually within the radius, with no distance sort.
+ *
+ * Loaded once the application is ready and kept current by a change stream on users, so writes from any node
+ * (and any code path) are picked up; the profile and signup paths also apply their change directly so the
+ * writing node sees it at once. When the stream is down or stale, callers fall back to Mongo.
+ * Stays off on a standalone MongoDB, which has no change streams.
+ */
+@Slf4j
+@Component
+public class SeekerMatchIndex {
+
+    private static final String[] INDEXED_FIELDS = {"role", "skills", "geo_location"};
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final ChangeStreamWatcher watcher;
+    private final int cellPrecision;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final List<String> idByOrdinal = new ArrayList<>();
+    private final Map<Integer, Seeker> seekersByOrdinal = new HashMap<>();
+    private final Map<String, BitSet> bySkill = new HashMap<>();
+    private final Map<String, BitSet> byCell = new HashMap<>();
+
+    private final Counter eventsApplied;
+    private final Counter fallbacks;
+
+    public SeekerMatchIndex(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${snaptask.seeker-index.enabled:true}") boolean enabled,
+            @Value("${snaptask.seeker-index.max-staleness-ms:5000}") long maxStalenessMs,
+            @Value("${snaptask.seeker-index.retry-delay-ms:5000}") long retryDelayMs,
+            @Value("${snaptask.seeker-index.cell-precision:5}") int cellPrecision
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.maxStaleness = Duration.ofMillis(maxStalenessMs);
+        this.watcher = new ChangeStreamWatcher("seeker-index", mongoTemplate, this::openChangeStream,
+                this::reload, this::applyEvent, Duration.ofMillis(retryDelayMs));
+        this.cellPrecision = cellPrecision;
+
+        this.eventsApplied = Counter.builder("snaptask.seeker_index.events")
+                .description("Change stream events applied to the seeker index")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("snaptask.seeker_index.fallbacks")
+                .description("Seeker matches served from Mongo because the seeker index was not fresh")
+                .register(meterRegistry);
+        Gauge.builder("snaptask.seeker_index.size", this, SeekerMatchIndex::size)
+                .description("Seekers held in the index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Seeker index disabled, seeker matching is served from Mongo");
+            return;
+        }
+        if (!watcher.start()) {
+            log.info("Seeker index disabled, MongoDB is standalone and has no change streams; seeker matching is served from Mongo");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        watcher.stop();
+    }
+
+    /**
+     * Ids of seekers having at least one of the skills. Returns empty when the index is not fresh enough,
+     * in which case the caller must query Mongo.
+     */
+    public Optional<List<String>> findSeekersWithAnySkill(Collection<String> skills) {
+        return match(skills, false);
+    }
+
+    /**
+     * Ids of seekers having every one of the skills. Returns empty when the index is not fresh enough.
+     */
+    public Optional<List<String>> findSeekersWithAllSkills(Collection<String> skills) {
+        return match(skills, true);
+    }
+
+    /**
+     * Ids of seekers whose saved location is within radiusKm of the point. Returns empty when the index is not
+     * fresh enough.
+     */
+    public Optional<List<String>> findSeekersWithin(double latitude, double longitude, double radiusKm) {
+        if (!isServing()) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm, cellPrecision);
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = new BitSet();
+            for (String cell : cells) {
+                BitSet seekers = byCell.get(cell);
+                if (seekers != null) {
+                    candidates.or(seekers);
+                }
+            }
+
+            List<String> ids = new ArrayList<>();
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                Seeker seeker = seekersByOrdinal.get(ordinal);
+                if (GeoHash.distanceKm(latitude, longitude, seeker.latitude(), seeker.longitude()) <= radiusKm) {
+                    ids.add(idByOrdinal.get(ordinal));
+                }
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a seeker's saved state right away on this node; the change stream delivers the same change later.
+     */
+    public void apply(User user) {
+        if (!watcher.isRunning() || user == null || user.getId() == null) {
+            return;
+        }
+        upsert(user);
+    }
+
+    public boolean isServing() {
+        return watcher.isServing(maxStaleness);
+    }
+
+    private Optional<List<String>> match(Collection<String> skills, boolean all) {
+        if (!isServing()) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        if (skills == null || skills.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (String skill : skills) {
+                BitSet seekers = bySkill.get(skill);
+                if (seekers == null) {
+                    if (all) {
+                        return Optional.of(List.of());
+                    }
+                    continue;
+                }
+                if (result == null) {
+                    result = (BitSet) seekers.clone();
+                } else if (all) {
+                    result.and(seekers);
+                } else {
+                    result.or(seekers);
+                }
+            }
+            if (result == null) {
+                return Optional.of(List.of());
+            }
+
+            List<String> ids = new ArrayList<>(result.cardinality());
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                ids.add(idByOrdinal.get(ordinal));
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return seekersByOrdinal.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openChangeStream() {
+        List<String> projected = new ArrayList<>(List.of("operationType", "documentKey", "fullDocument._id"));
+        for (String field : INDEXED_FIELDS) {
+            projected.add("fullDocument." + field);
+        }
+        List<Bson> pipeline = List.of(Aggregates.project(Projections.include(projected)));
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS)
+                .cursor();
+    }
+
+    private void reload() {
+        Query query = new Query(Criteria.where("role").is(UserRole.SEEKER.name()));
+        query.fields().include(INDEXED_FIELDS);
+
+        lock.writeLock().lock();
+        try {
+            ordinalById.clear();
+            idByOrdinal.clear();
+            seekersByOrdinal.clear();
+            bySkill.clear();
+            byCell.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try (Stream<User> seekers = mongoTemplate.stream(query, User.class)) {
+            seekers.forEach(this::upsert);
+        }
+        log.info("Seeker index loaded with {} seekers and {} skills", size(), bySkill.size());
+    }
+
+    private void applyEvent(ChangeStreamDocument<Document> event) {
+        eventsApplied.increment();
+        switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document fullDocument = event.getFullDocument();
+                if (fullDocument == null) {
+                    // deleted before the lookup ran
+                    remove(ChangeStreamWatcher.documentId(event));
+                    return;
+                }
+                upsert(mongoTemplate.getConverter().read(User.class, fullDocument));
+            }
+            case DELETE -> remove(ChangeStreamWatcher.documentId(event));
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE ->
+                    throw new IllegalStateException("Change stream invalidated by " + event.getOperationType());
+            default -> { }
+        }
+    }
+
+    private void upsert(User user) {
+        String userId = user.getId();
+        if (userId == null) {
+            return;
+        }
+        if (user.getRole() != UserRole.SEEKER) {
+            remove(userId);
+            return;
+        }
+
+        List<String> skills = user.getSkills() != null ? List.copyOf(user.getSkills()) : List.of();
+        GeoJsonPoint location = user.getGeoJsonPoint();
+        Seeker seeker = location != null
+                ? new Seeker(skills, GeoHash.encode(location.getY(), location.getX(), cellPrecision), location.getY(), location.getX())
+                : new Seeker(skills, null, 0, 0);
+
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalById.computeIfAbsent(userId, id -> {
+                idByOrdinal.add(id);
+                return idByOrdinal.size() - 1;
+            });
+            clear(ordinal);
+            for (String skill : skills) {
+                bySkill.computeIfAbsent(skill, s -> new BitSet()).set(ordinal);
+            }
+            if (seeker.cell() != null) {
+                byCell.computeIfAbsent(seeker.cell(), c -> new BitSet()).set(ordinal);
+            }
+            seekersByOrdinal.put(ordinal, seeker);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(String userId) {
+        if (userId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(userId);
+            if (ordinal != null) {
+                // the ordinal stays reserved for this id, so a returning seeker keeps it
+                clear(ordinal);
+                seekersByOrdinal.remove(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear(int ordinal) {
+        Seeker previous = seekersByOrdinal.get(ordinal);
+        if (previous == null) {
+            return;
+        }
+        for (String skill : previous.skills()) {
+            clearBit(bySkill, skill, ordinal);
+        }
+        if (previous.cell() != null) {
+            clearBit(byCell, previous.cell(), ordinal);
+        }
+    }
+
+    private static void clearBit(Map<String, BitSet> postings, String key, int ordinal) {
+        BitSet ordinals = postings.get(key);
+        if (ordinals != null) {
+            ordinals.clear(ordinal);
+            if (ordinals.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private record Seeker(List<String> skills, String cell, double latitude, double longitude) {
+    }
+}
@@ -1,19 +1,26 @@
 package com.snaptask.server.snaptask_server.service.user;
 
+import com.snaptask.server.snaptask_server.dto.common.CursorPageDto;
 import com.snaptask.server.snaptask_server.dto.notification.PosterNotificationDto;
 import com.snaptask.server.snaptask_server.dto.notification.SeekerNotificationDto;
+import com.snaptask.server.snaptask_server.dto.notification.UpdateNotificationStatusDto;
 import com.snaptask.server.snaptask_server.dto.user.ProfileDto;
 import com.snaptask.server.snaptask_server.dto.user.RegisterFcmDto;
 import com.snaptask.server.snaptask_server.dto.user.SetLocationDto;
 import com.snaptask.server.snaptask_server.dto.user.UpdatePosterProfileDto;
 import com.snaptask.server.snaptask_server.enums.NotificationStatus;
+import com.snaptask.server.snaptask_server.modals.Device;
 import com.snaptask.server.snaptask_server.modals.Notification;
+import com.snaptask.server.snaptask_server.modals.NotificationInboxEntry;
 import com.snaptask.server.snaptask_server.modals.User;
+import com.snaptask.server.snaptask_server.repository.device.CustomDeviceRepository;
 import com.snaptask.server.snaptask_server.repository.notification.CustomNotificationRepository;
 import com.snaptask.server.snaptask_server.repository.notification.NotificationRepository;
 import com.snaptask.server.snaptask_server.repository.user.UserRepository;
 import com.snaptask.server.snaptask_server.util.Helper;
+import com.snaptask.server.snaptask_server.util.PageCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +29,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @Slf4j
@@ -31,41 +40,52 @@ public class UserService {
     private final Helper helper;
     private final NotificationRepository notificationRepository;
     private final CustomNotificationRepository customNotificationRepository;
+    private final CustomDeviceRepository customDeviceRepository;
+    private final SeekerMatchIndex seekerMatchIndex;
+    private final int inboxLimit;
+    private final int defaultInboxPageSize;
 
 
     public UserService(
             UserRepository userRepository,
             Helper helper,
             NotificationRepository notificationRepository,
-            CustomNotificationRepository customNotificationRepository
+            CustomNotificationRepository customNotificationRepository,
+            CustomDeviceRepository customDeviceRepository,
+            SeekerMatchIndex seekerMatchIndex,
+            @Value("${snaptask.notifications.inbox-limit:100}") int inboxLimit,
+            @Value("${snaptask.notifications.default-page-size:20}") int defaultInboxPageSize
     ){
         this.userRepository = userRepository;
         this.helper = helper;
         this.notificationRepository = notificationRepository;
         this.customNotificationRepository = customNotificationRepository;
+        this.customDeviceRepository = customDeviceRepository;
+        this.seekerMatchIndex = seekerMatchIndex;
+        this.inboxLimit = inboxLimit;
+        this.defaultInboxPageSize = defaultInboxPageSize;
     }
     public ResponseEntity<?> setLocation(SetLocationDto dto) {
         User user = helper.getCurrentLoggedInUser();
         user.setGeoJsonPoint(new GeoJsonPoint(dto.getLongitude(), dto.getLatitude()));
         user.setAddress(dto.getAddress());
         userRepository.save(user);
+        seekerMatchIndex.apply(user);
         return ResponseEntity.ok("Location updated successfully");
     }
 
     public ResponseEntity<?> registerFcm(RegisterFcmDto dto){
-        User user = helper.getCurrentLoggedInUser();
+        String userId = helper.getCurrentUserId();
 
-        // 3️⃣ Idempotent update — update only if changed
-        String existingToken = user.getFcmToken();
-        if (dto.getToken().equals(existingToken)) {
-            log.info("Expo token alredy exist");
+        // Atomic upsert on the device token: no user document write, and other devices of the user stay registered
+        Device previous = customDeviceRepository.upsert(userId, dto.getToken());
+        if (previous != null && userId.equals(previous.getUserId())) {
+            log.info("Expo token already registered for user {}", userId);
             return ResponseEntity
                     .ok("Token already up-to-date");
         }
 
-        user.setFcmToken(dto.getToken());
-        userRepository.save(user);
-        log.info("✅ FCM token updated for user: {} and toen is {}", user.getEmail(),dto.getToken());
+        log.info("✅ Push token registered for user: {}", userId);
         return ResponseEntity.ok("Token saved successfully");
     }
 
@@ -93,6 +113,7 @@ public class UserService {
         User currentUser = helper.getCurrentLoggedInUser();
 
         boolean isUpdated = false;
+        boolean skillsChanged = false;
 
         if (dto.getName() != null && !dto.getName().equals(currentUser.getName())) {
             currentUser.setName(dto.getName());
@@ -117,10 +138,15 @@ public class UserService {
         if (dto.getSkills() != null && !dto.getSkills().equals(currentUser.getSkills())) {
             currentUser.setSkills(dto.getSkills());
             isUpdated = true;
+            skillsChanged = true;
         }
         if (isUpdated) {
             currentUser.setUpdatedAt(LocalDateTime.now());
             userRepository.save(currentUser);
+            if (skillsChanged) {
+                // match this node's next fan-out right away instead of waiting for the change stream
+                seekerMatchIndex.apply(currentUser);
+            }
         } else {
             return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
                     .body("No changes detected in the profile.");
@@ -130,14 +156,14 @@ public class UserService {
     }
 
     public ResponseEntity<List<PosterNotificationDto>> getAllPosterNotifications() {
-        User user = helper.getCurrentLoggedInUser();
-        log.info("current user id is {}",user.getId());
-        log.info("current user id is {} (class = {})", user.getId(), user.getId().getClass().getName());
+        String userId = helper.getCurrentUserId();
+        log.info("Fetching notifications for poster with ID: {}", userId);
 
         List<Notification> notifications =
                 customNotificationRepository.findByReceiverIdAndStatus(
-                        user.getId(),
-                        NotificationStatus.NEW
+                        userId,
+                        NotificationStatus.NEW,
+                        inboxLimit
                 );
 
 
@@ -145,63 +171,122 @@ public class UserService {
             return ResponseEntity.noContent().build();
         }
 
-        List<PosterNotificationDto> notificationDtos = notifications.stream()
-                .map(n -> PosterNotificationDto.builder()
-                        .id(n.getId())
-                        .type(n.getType())
-                        .seekerName(n.getSeekerName())
-                        .taskTitle(n.getTaskTitle())
-                        .time(n.getCreatedAt() != null ? n.getCreatedAt().toString() : null)
-                        .seekerRating(n.getSeekerRating())
-                        .completedTasks(n.getCompletedTasks())
-                        .message(n.getMessage())
-                        .bidAmount(n.getExtraInfo())
-                        .timeline(n.getTimeline())
-                        .status(n.getStatus())
-                        .build()
-                ).toList();
-
-        return ResponseEntity.ok(notificationDtos);
+        return ResponseEntity.ok(notifications.stream().map(this::toPosterNotificationDto).toList());
     }
 
     public ResponseEntity<List<SeekerNotificationDto>> getAllSeekerNotifications() {
-        User user = helper.getCurrentLoggedInUser();
-        log.info("Fetching notifications for seeker with ID: {}", user.getId());
+        String userId = helper.getCurrentUserId();
+        log.info("Fetching notifications for seeker with ID: {}", userId);
 
         List<Notification> notifications = customNotificationRepository.findByReceiverIdAndStatus(
-                user.getId(),
-                NotificationStatus.NEW
+                userId,
+                NotificationStatus.NEW,
+                inboxLimit
         );
 
         if (notifications.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
 
-        List<SeekerNotificationDto> notificationDtos = notifications.stream()
-                .map(n -> SeekerNotificationDto.builder()
-                        .id(n.getId())
-                        .type(n.getType())
-                        .taskId(n.getTaskId())
-                        .posterName(n.getPosterName())
-                        .taskTitle(n.getTaskTitle())
-                        .time(n.getCreatedAt() != null ? n.getCreatedAt().toString() : null)
-                        .posterRating(n.getPosterRating())
-                        .postedOn(
-                                n.getCreatedAt() != null
-                                        ? n.getCreatedAt().toString()
-                                        : "N/A"
-                        )
-                        .message(n.getMessage())
-                        .budget(n.getBudget())
-                        .deadline(n.getDeadline())
-                        .updateInfo(n.getUpdateInfo())
-                        .status(n.getStatus())
-                        .build()
-                )
-                .toList();
+        return ResponseEntity.ok(notifications.stream().map(this::toSeekerNotificationDto).toList());
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDto<PosterNotificationDto>> getPosterNotificationInbox(NotificationStatus status, String cursor, Integer size) {
+        return ResponseEntity.ok(loadInboxPage(status, cursor, size, this::toPosterNotificationDto));
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPageDto<SeekerNotificationDto>> getSeekerNotificationInbox(NotificationStatus status, String cursor, Integer size) {
+        return ResponseEntity.ok(loadInboxPage(status, cursor, size, this::toSeekerNotificationDto));
+    }
+
+    private <T> CursorPageDto<T> loadInboxPage(NotificationStatus status, String cursor, Integer size, Function<Notification, T> mapper) {
+        String userId = helper.getCurrentUserId();
+        int pageSize = helper.resolvePageSize(size, defaultInboxPageSize, inboxLimit);
+
+        // One extra entry tells us whether another page exists
+        List<NotificationInboxEntry> entries = customNotificationRepository.findInboxPage(
+                userId,
+                status != null ? status : NotificationStatus.NEW,
+                PageCursor.decode(cursor),
+                pageSize + 1
+        );
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
 
-        return ResponseEntity.ok(notificationDtos);
+        List<T> items = customNotificationRepository.loadBodies(entries).stream().map(mapper).toList();
+        NotificationInboxEntry last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        return CursorPageDto.<T>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new PageCursor(last.getCreatedAt().toString(), last.getId()).encode() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getUnreadNotificationCount() {
+        String userId = helper.getCurrentUserId();
+        return ResponseEntity.ok(Map.of("unread", customNotificationRepository.findUnreadCount(userId)));
+    }
+
+    public ResponseEntity<?> updateNotificationStatus(UpdateNotificationStatusDto dto) {
+        if (dto.getStatus() == NotificationStatus.NEW) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Notifications can only be marked READ or ARCHIVED"));
+        }
+
+        String userId = helper.getCurrentUserId();
+        List<String> notificationIds = dto.getNotificationIds().stream().distinct().toList();
+        long wasUnread = customNotificationRepository.updateInboxStatus(userId, notificationIds, dto.getStatus());
+        if (wasUnread > 0) {
+            customNotificationRepository.incrementUnread(Map.of(userId, -wasUnread));
+        }
+        log.info("User {} moved {} notifications to {} ({} were unread)", userId, notificationIds.size(), dto.getStatus(), wasUnread);
+
+        return ResponseEntity.ok(Map.of(
+                "message", "Notifications updated",
+                "unread", customNotificationRepository.findUnreadCount(userId)
+        ));
+    }
+
+    private PosterNotificationDto toPosterNotificationDto(Notification n) {
+        return PosterNotificationDto.builder()
+                .id(n.getId())
+                .type(n.getType())
+                .seekerName(n.getSeekerName())
+                .taskTitle(n.getTaskTitle())
+                .time(n.getCreatedAt() != null ? n.getCreatedAt().toString() : null)
+                .seekerRating(n.getSeekerRating())
+                .completedTasks(n.getCompletedTasks())
+                .message(n.getMessage())
+                .bidAmount(n.getExtraInfo())
+                .timeline(n.getTimeline())
+                .status(n.getStatus())
+                .build();
     }
 
+    private SeekerNotificationDto toSeekerNotificationDto(Notification n) {
+        return SeekerNotificationDto.builder()
+                .id(n.getId())
+                .type(n.getType())
+                .taskId(n.getTaskId())
+                .posterName(n.getPosterName())
+                .taskTitle(n.getTaskTitle())
+                .time(n.getCreatedAt() != null ? n.getCreatedAt().toString() : null)
+                .posterRating(n.getPosterRating())
+                .postedOn(
+                        n.getCreatedAt() != null
+                                ? n.getCreatedAt().toString()
+                                : "N/A"
+                )
+                .message(n.getMessage())
+                .budget(n.getBudget())
+                .deadline(n.getDeadline())
+                .updateInfo(n.getUpdateInfo())
+                .status(n.getStatus())
+                .build();
+    }
 
 }
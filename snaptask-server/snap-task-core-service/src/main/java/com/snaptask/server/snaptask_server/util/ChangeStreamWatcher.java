@@ -0,0 +1,153 @@
+package com.snaptask.server.snaptask_server.util;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps an in-memory copy current from a change stream: opens the stream, reloads the copy, then applies events
+ * until the stream fails, and starts over after a delay. Used by the in-process indexes, which fall back to Mongo
+ * whenever {@link #isServing} is false.
+ *
+ * Change streams need a replica set or a sharded cluster; on a standalone server the watcher does not start.
+ */
+@Slf4j
+public final class ChangeStreamWatcher {
+
+    private final String name;
+    private final MongoTemplate mongoTemplate;
+    private final Supplier<MongoChangeStreamCursor<ChangeStreamDocument<Document>>> openStream;
+    private final Runnable reload;
+    private final Consumer<ChangeStreamDocument<Document>> onEvent;
+    private final Duration retryDelay;
+
+    private volatile boolean ready = false;
+    private volatile boolean running = false;
+    private volatile long lastHeartbeatMillis = 0;
+    private volatile Thread watcher;
+
+    /**
+     * @param name       thread name and log prefix, e.g. "open-task-index"
+     * @param openStream opens the change stream; called before reload so changes made during the load are replayed
+     * @param reload     rebuilds the in-memory copy from Mongo
+     * @param onEvent    applies one event; throwing restarts the stream
+     */
+    public ChangeStreamWatcher(
+            String name,
+            MongoTemplate mongoTemplate,
+            Supplier<MongoChangeStreamCursor<ChangeStreamDocument<Document>>> openStream,
+            Runnable reload,
+            Consumer<ChangeStreamDocument<Document>> onEvent,
+            Duration retryDelay
+    ) {
+        this.name = name;
+        this.mongoTemplate = mongoTemplate;
+        this.openStream = openStream;
+        this.reload = reload;
+        this.onEvent = onEvent;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Starts watching on a daemon thread. Returns false, without starting or logging, when the server is standalone
+     * and cannot serve change streams; the caller says what that disables.
+     */
+    public boolean start() {
+        if (!supportsChangeStreams()) {
+            return false;
+        }
+        running = true;
+        watcher = new Thread(this::watchLoop, name);
+        watcher.setDaemon(true);
+        watcher.start();
+        return true;
+    }
+
+    public void stop() {
+        running = false;
+        Thread current = watcher;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isServing(Duration maxStaleness) {
+        return ready && System.currentTimeMillis() - lastHeartbeatMillis <= maxStaleness.toMillis();
+    }
+
+    public long lastHeartbeatMillis() {
+        return lastHeartbeatMillis;
+    }
+
+    /**
+     * Id of the changed document, as a string, or null when the event carries none.
+     */
+    public static String documentId(ChangeStreamDocument<Document> event) {
+        if (event.getDocumentKey() == null) {
+            return null;
+        }
+        BsonValue id = event.getDocumentKey().get("_id");
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    /**
+     * Asks the server once: a replica set member reports setName and a mongos reports msg "isdbgrid".
+     * If the server cannot be asked, the watcher starts anyway and its retry loop takes over.
+     */
+    private boolean supportsChangeStreams() {
+        try {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (Exception e) {
+            log.warn("{} could not read the MongoDB topology, starting anyway: {}", name, e.getMessage());
+            return true;
+        }
+    }
+
+    private void watchLoop() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openStream.get()) {
+                reload.run();
+                lastHeartbeatMillis = System.currentTimeMillis();
+                ready = true;
+
+                while (running) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    lastHeartbeatMillis = System.currentTimeMillis();
+                    if (event != null) {
+                        onEvent.accept(event);
+                    }
+                }
+            } catch (Exception e) {
+                ready = false;
+                if (!running) {
+                    break;
+                }
+                log.warn("{} stream failed, falling back to Mongo and retrying in {}ms: {}",
+                        name, retryDelay.toMillis(), e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        ready = false;
+    }
+}
@@ -0,0 +1,104 @@
+package com.snaptask.server.snaptask_server.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal geohash support for the in-memory seeker grid: encoding a point to its cell, listing the cells that cover
+ * a circle, and great-circle distance for filtering the candidates those cells return.
+ */
+public final class GeoHash {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        double lon = normalizeLongitude(longitude);
+
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bits = 0;
+        int value = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    value = (value << 1) | 1;
+                    minLon = mid;
+                } else {
+                    value <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLat = mid;
+                } else {
+                    value <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(value));
+                bits = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Cells of the given precision that together cover every point within radiusKm of the centre.
+     * The cover is the circle's bounding box, so callers still filter candidates by distance.
+     */
+    public static Set<String> coveringCells(double latitude, double longitude, double radiusKm, int precision) {
+        int bits = precision * 5;
+        double cellWidth = 360.0 / (1L << ((bits + 1) / 2));
+        double cellHeight = 180.0 / (1L << (bits / 2));
+
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+
+        double cosLat = Math.min(Math.cos(Math.toRadians(minLat)), Math.cos(Math.toRadians(maxLat)));
+        double lonDelta = cosLat > 1e-6 ? radiusKm / (KM_PER_DEGREE * cosLat) : 180;
+        double minLon = lonDelta >= 180 ? -180 : longitude - lonDelta;
+        double maxLon = lonDelta >= 180 ? 180 - cellWidth / 2 : longitude + lonDelta;
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = minLat; ; lat += cellHeight) {
+            double rowLat = Math.min(lat, maxLat);
+            for (double lon = minLon; ; lon += cellWidth) {
+                cells.add(encode(rowLat, Math.min(lon, maxLon), precision));
+                if (lon >= maxLon) {
+                    break;
+                }
+            }
+            if (lat >= maxLat) {
+                break;
+            }
+        }
+        return cells;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        double lon = ((longitude + 180) % 360 + 360) % 360 - 180;
+        return lon == 180 ? -180 : lon;
+    }
+}
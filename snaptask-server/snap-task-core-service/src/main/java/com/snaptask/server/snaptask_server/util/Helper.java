@@ -1,30 +1,58 @@
 package com.snaptask.server.snaptask_server.util;
 
+import com.snaptask.server.snaptask_server.dto.auth.TokenPrincipal;
+import com.snaptask.server.snaptask_server.dto.notification.SeekerPushTarget;
 import com.snaptask.server.snaptask_server.enums.UserRole;
 import com.snaptask.server.snaptask_server.enums.WorkMode;
 import com.snaptask.server.snaptask_server.modals.Task;
 import com.snaptask.server.snaptask_server.modals.User;
+import com.snaptask.server.snaptask_server.repository.device.CustomDeviceRepository;
+import com.snaptask.server.snaptask_server.repository.user.CustomUserRepository;
 import com.snaptask.server.snaptask_server.repository.user.UserRepository;
+import com.snaptask.server.snaptask_server.service.user.SeekerMatchIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Circle;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
 
 @Component
 @Slf4j
 public class Helper {
     private final UserRepository userRepository;
+    private final CustomUserRepository customUserRepository;
+    private final CustomDeviceRepository customDeviceRepository;
+    private final SeekerMatchIndex seekerMatchIndex;
+    private final double defaultRadiusKm;
 
-    public Helper(UserRepository userRepository){
+    public Helper(
+            UserRepository userRepository,
+            CustomUserRepository customUserRepository,
+            CustomDeviceRepository customDeviceRepository,
+            SeekerMatchIndex seekerMatchIndex,
+            @Value("${snaptask.fanout.default-radius-km:10}") double defaultRadiusKm
+    ){
         this.userRepository  = userRepository;
+        this.customUserRepository = customUserRepository;
+        this.customDeviceRepository = customDeviceRepository;
+        this.seekerMatchIndex = seekerMatchIndex;
+        this.defaultRadiusKm = defaultRadiusKm;
     }
     public String generateVerificationCode() {
         Random random = new Random();
@@ -33,14 +61,28 @@ public class Helper {
     }
 
     public User getCurrentLoggedInUser() {
-        var context = SecurityContextHolder.getContext();
-        if (context == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Security context is missing. User may not be authenticated.");
+        Authentication authentication = getCurrentAuthentication();
+
+        // JwtAuthenticationFilter already loaded the user for this request, reuse it instead of re-querying
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
         }
 
-        Authentication authentication = context.getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No authenticated user found in security context.");
+        // Claims-only mode: load the user once, check the token was not revoked, and keep it for the rest of the request
+        if (authentication.getPrincipal() instanceof TokenPrincipal principal) {
+            User user = userRepository.findById(principal.getId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                            "User with id '" + principal.getId() + "' no longer exists."));
+
+            if (user.getTokenVersion() != principal.getTokenVersion() || !user.isEnabled()) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token has been revoked. Please log in again.");
+            }
+
+            UsernamePasswordAuthenticationToken refreshed =
+                    new UsernamePasswordAuthenticationToken(user, null, authentication.getAuthorities());
+            refreshed.setDetails(authentication.getDetails());
+            SecurityContextHolder.getContext().setAuthentication(refreshed);
+            return user;
         }
 
         String email = authentication.getName();
@@ -53,32 +95,111 @@ public class Helper {
                         "User with email '" + email + "' not found."));
     }
 
-    public List<User> findEligibleSeekers(Task task, GeoJsonPoint posterLocation) {
+    /**
+     * Id of the authenticated user. Never touches the database when the id is already in the principal.
+     */
+    public String getCurrentUserId() {
+        Object principal = getCurrentAuthentication().getPrincipal();
+        if (principal instanceof TokenPrincipal tokenPrincipal) {
+            return tokenPrincipal.getId();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return getCurrentLoggedInUser().getId();
+    }
+
+    /**
+     * Clamps a client supplied page size into [1, maxSize], using defaultSize when none was sent.
+     */
+    public int resolvePageSize(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+
+    private Authentication getCurrentAuthentication() {
+        var context = SecurityContextHolder.getContext();
+        if (context == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Security context is missing. User may not be authenticated.");
+        }
+
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No authenticated user found in security context.");
+        }
+        return authentication;
+    }
+
+    /**
+     * Streams the seekers who should hear about a new task, in chunks of (id, push token).
+     * ONSITE tasks target seekers within the task's radius of the poster, REMOTE tasks target seekers whose skills include
+     * the category. Both are answered from the in-memory seeker index while it is fresh, and from Mongo otherwise.
+     *
+     * @return number of seekers streamed
+     */
+    public long streamEligibleSeekers(Task task, GeoJsonPoint posterLocation, int chunkSize, Consumer<List<SeekerPushTarget>> chunkConsumer) {
+        Criteria criteria = Criteria.where("role").is(UserRole.SEEKER.name());
+
         if (task.getMode() == WorkMode.ONSITE) {
             if (posterLocation == null) {
                 log.warn("ON_SITE task {} missing poster location, skipping geo notifications", task.getId());
-                return List.of();
+                return 0;
             }
-            var seekers = userRepository.findByRoleAndGeoJsonPointNear(
-                    UserRole.SEEKER,
-                    posterLocation,
-                    new Distance(10, Metrics.KILOMETERS)
-            );
-            log.info("Found {} seekers within 10 km for task {}", seekers.size(), task.getId());
-            return seekers;
+            double radiusKm = task.getRadiusKm() != null ? task.getRadiusKm() : defaultRadiusKm;
+            Optional<List<String>> indexed = seekerMatchIndex.findSeekersWithin(posterLocation.getY(), posterLocation.getX(), radiusKm);
+            if (indexed.isPresent()) {
+                streamInChunks(indexed.get(), chunkSize, chunkConsumer);
+                log.info("Matched {} seekers within {} km for task {} from the seeker index", indexed.get().size(), radiusKm, task.getId());
+                return indexed.get().size();
+            }
+
+            // $geoWithin instead of $near: the fan-out needs no distance ordering, and unsorted results can be streamed
+            criteria = criteria.and("geo_location").withinSphere(new Circle(
+                    new Point(posterLocation.getX(), posterLocation.getY()),
+                    new Distance(radiusKm, Metrics.KILOMETERS)
+            ));
+            long count = customUserRepository.streamUserIds(criteria, chunkSize, withPushTokens(chunkConsumer));
+            log.info("Found {} seekers within {} km for task {}", count, radiusKm, task.getId());
+            return count;
         }
 
         if (task.getMode() == WorkMode.REMOTE) {
-            var seekers = userRepository.findByRoleAndSkillsIn(
-                    UserRole.SEEKER,
-                    List.of(task.getCategory())
-            );
-            log.info("Found {} remote seekers for task {} based on skills/category", seekers.size(), task.getId());
-            return seekers;
+            Optional<List<String>> indexed = seekerMatchIndex.findSeekersWithAnySkill(Collections.singletonList(task.getCategory()));
+            if (indexed.isPresent()) {
+                streamInChunks(indexed.get(), chunkSize, chunkConsumer);
+                log.info("Matched {} remote seekers for task {} from the seeker index", indexed.get().size(), task.getId());
+                return indexed.get().size();
+            }
+
+            criteria = criteria.and("skills").in(task.getCategory());
+            long count = customUserRepository.streamUserIds(criteria, chunkSize, withPushTokens(chunkConsumer));
+            log.info("Found {} remote seekers for task {} based on skills/category", count, task.getId());
+            return count;
         }
 
         log.warn("Task {} has unknown work mode {}, skipping notifications", task.getId(), task.getMode());
-        return List.of();
+        return 0;
+    }
+
+    private void streamInChunks(List<String> seekerIds, int chunkSize, Consumer<List<SeekerPushTarget>> chunkConsumer) {
+        Consumer<List<String>> chunks = withPushTokens(chunkConsumer);
+        for (int from = 0; from < seekerIds.size(); from += chunkSize) {
+            chunks.accept(seekerIds.subList(from, Math.min(from + chunkSize, seekerIds.size())));
+        }
+    }
+
+    /**
+     * Resolves the device tokens of each chunk of user ids with one batch lookup.
+     */
+    private Consumer<List<String>> withPushTokens(Consumer<List<SeekerPushTarget>> chunkConsumer) {
+        return userIds -> {
+            Map<String, List<String>> tokens = customDeviceRepository.findTokensByUserIds(userIds);
+            chunkConsumer.accept(userIds.stream()
+                    .map(userId -> new SeekerPushTarget(userId, tokens.getOrDefault(userId, List.of())))
+                    .toList());
+        };
     }
 
 }
@@ -0,0 +1,81 @@
+package com.snaptask.server.snaptask_server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort value of the last returned row plus its id as tie-breaker.
+ * Encoded as URL-safe base64 so clients treat it as an opaque token.
+ */
+public record PageCursor(String sortValue, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The sort value of a cursor issued by a posted_on ordered listing.
+     *
+     * @throws IllegalArgumentException if the cursor came from another listing or was tampered with
+     */
+    public LocalDateTime sortValueAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortValue);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+
+    /**
+     * The sort value of a cursor issued by a created_at ordered listing.
+     *
+     * @throws IllegalArgumentException if the cursor came from another listing or was tampered with
+     */
+    public Instant sortValueAsInstant() {
+        try {
+            return Instant.parse(sortValue);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+
+    /**
+     * The sort value of a cursor issued by a listing ordered by a number, such as distance or relevance.
+     *
+     * @throws IllegalArgumentException if the cursor came from another listing or was tampered with
+     */
+    public double sortValueAsDouble() {
+        try {
+            return Double.parseDouble(sortValue);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+
+    /**
+     * Returns null for a missing cursor (first page).
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split <= 0 || split == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid page cursor.");
+            }
+            return new PageCursor(raw.substring(0, split), raw.substring(split + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.snaptask.server.snaptask_server.service.outbox;
+
+import com.snaptask.server.snaptask_server.exceptions.customExceptions.PushDeliveryException;
+import com.snaptask.server.snaptask_server.modals.OutboxMessage;
+import com.snaptask.server.snaptask_server.repository.device.CustomDeviceRepository;
+import com.snaptask.server.snaptask_server.repository.outbox.CustomOutboxRepository;
+import com.snaptask.server.snaptask_server.service.ExpoPushService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+	private static final long LEASE_MS = 60_000;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long BASE_DELAY_MS = 1_000;
+	private static final long MAX_DELAY_MS = 10_000;
+
+	private CustomOutboxRepository outbox;
+	private CustomDeviceRepository devices;
+	private ExpoPushService push;
+	private List<Runnable> submitted;
+
+	@BeforeEach
+	void setUp() {
+		outbox = mock(CustomOutboxRepository.class);
+		devices = mock(CustomDeviceRepository.class);
+		push = mock(ExpoPushService.class);
+		submitted = new ArrayList<>();
+		when(devices.findTokensByUserIds(any())).thenReturn(Map.of("user-1", List.of("ExponentPushToken[a]")));
+	}
+
+	@Test
+	void claimsWithOneLeaseTokenAndCompletesDeliveredMessagesUnderIt() {
+		OutboxDispatcher dispatcher = dispatcher(10);
+		when(outbox.claim(anyString(), any(), any(), eq(10))).thenReturn(List.of(message("m-1", 0)));
+		when(push.deliverBatch(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+		Instant before = Instant.now();
+		dispatcher.drain();
+
+		ArgumentCaptor<String> leaseToken = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+		ArgumentCaptor<Instant> leaseUntil = ArgumentCaptor.forClass(Instant.class);
+		verify(outbox).claim(leaseToken.capture(), now.capture(), leaseUntil.capture(), eq(10));
+		assertThat(now.getValue()).isAfterOrEqualTo(before);
+		assertThat(Duration.between(now.getValue(), leaseUntil.getValue())).isEqualTo(Duration.ofMillis(LEASE_MS));
+
+		verify(outbox).complete("m-1", leaseToken.getValue());
+		verify(outbox, never()).retryLater(any(), any(), anyInt(), any(), any());
+	}
+
+	@Test
+	void releasesRetryableFailuresWithJitteredBackoff() {
+		OutboxDispatcher dispatcher = dispatcher(10);
+		when(outbox.claim(anyString(), any(), any(), anyInt())).thenReturn(List.of(message("m-1", 1)));
+		when(push.deliverBatch(any(), any(), any(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("HTTP 503", 503, true, null)));
+
+		Instant before = Instant.now();
+		dispatcher.drain();
+
+		ArgumentCaptor<Instant> availableAt = ArgumentCaptor.forClass(Instant.class);
+		verify(outbox).retryLater(eq("m-1"), anyString(), eq(2), availableAt.capture(), eq("HTTP 503"));
+		// second attempt: ceiling is base << 1, and half of it is fixed
+		assertThat(availableAt.getValue())
+				.isAfterOrEqualTo(before.plusMillis(BASE_DELAY_MS))
+				.isBeforeOrEqualTo(Instant.now().plusMillis(2 * BASE_DELAY_MS));
+		verify(outbox, never()).markDead(any(), any(), anyInt(), any());
+	}
+
+	@Test
+	void parksNonRetryableFailuresAsDead() {
+		OutboxDispatcher dispatcher = dispatcher(10);
+		when(outbox.claim(anyString(), any(), any(), anyInt())).thenReturn(List.of(message("m-1", 0)));
+		when(push.deliverBatch(any(), any(), any(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("HTTP 400", 400, false, null)));
+
+		dispatcher.drain();
+
+		verify(outbox).markDead(eq("m-1"), anyString(), eq(1), eq("HTTP 400"));
+		verify(outbox, never()).retryLater(any(), any(), anyInt(), any(), any());
+	}
+
+	@Test
+	void parksRetryableFailuresAsDeadOnTheLastAttempt() {
+		OutboxDispatcher dispatcher = dispatcher(10);
+		when(outbox.claim(anyString(), any(), any(), anyInt())).thenReturn(List.of(message("m-1", MAX_ATTEMPTS - 1)));
+		when(push.deliverBatch(any(), any(), any(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new PushDeliveryException("HTTP 503", 503, true, null)));
+
+		dispatcher.drain();
+
+		verify(outbox).markDead(eq("m-1"), anyString(), eq(MAX_ATTEMPTS), eq("HTTP 503"));
+	}
+
+	@Test
+	void keepsClaimingWhileBatchesComeBackFull() {
+		OutboxDispatcher dispatcher = dispatcher(2);
+		when(outbox.claim(anyString(), any(), any(), eq(2)))
+				.thenReturn(List.of(message("m-1", 0), message("m-2", 0)))
+				.thenReturn(List.of(message("m-3", 0)));
+		when(push.deliverBatch(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+		dispatcher.drain();
+
+		ArgumentCaptor<String> leaseTokens = ArgumentCaptor.forClass(String.class);
+		verify(outbox, times(2)).claim(leaseTokens.capture(), any(), any(), eq(2));
+		assertThat(leaseTokens.getAllValues()).doesNotHaveDuplicates();
+		verify(outbox, times(3)).complete(anyString(), anyString());
+	}
+
+	@Test
+	void triggerHandsTheDrainToTheExecutorAndSkipsWhileARunIsPending() {
+		OutboxDispatcher dispatcher = dispatcher(10);
+		when(outbox.claim(anyString(), any(), any(), anyInt())).thenReturn(List.of());
+
+		dispatcher.trigger();
+		dispatcher.trigger();
+
+		assertThat(submitted).hasSize(1);
+		verifyNoInteractions(outbox);
+
+		submitted.get(0).run();
+		verify(outbox).claim(anyString(), any(), any(), anyInt());
+
+		dispatcher.trigger();
+		assertThat(submitted).hasSize(2);
+	}
+
+	private OutboxDispatcher dispatcher(int batchSize) {
+		Executor executor = submitted::add;
+		return new OutboxDispatcher(outbox, devices, push, new SimpleMeterRegistry(), executor,
+				true, batchSize, LEASE_MS, MAX_ATTEMPTS, BASE_DELAY_MS, MAX_DELAY_MS);
+	}
+
+	private static OutboxMessage message(String id, int attempts) {
+		return OutboxMessage.builder()
+				.id(id)
+				.userId("user-1")
+				.title("title")
+				.body("body")
+				.data(Map.of())
+				.attempts(attempts)
+				.build();
+	}
+}
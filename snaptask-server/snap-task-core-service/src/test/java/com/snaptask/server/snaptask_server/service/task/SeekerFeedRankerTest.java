@@ -0,0 +1,159 @@
+package com.snaptask.server.snaptask_server.service.task;
+
+import com.snaptask.server.snaptask_server.enums.WorkMode;
+import com.snaptask.server.snaptask_server.modals.Task;
+import com.snaptask.server.snaptask_server.modals.User;
+import com.snaptask.server.snaptask_server.repository.task.CustomTaskRepository;
+import com.snaptask.server.snaptask_server.service.task.SeekerFeedRanker.RankedPage;
+import com.snaptask.server.snaptask_server.service.task.SeekerFeedRanker.RankedTask;
+import com.snaptask.server.snaptask_server.util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SeekerFeedRankerTest {
+
+	private static final int MAX_CANDIDATES = 5000;
+
+	private CustomTaskRepository repository;
+	private SeekerFeedRanker ranker;
+	private User seeker;
+	private List<Task> candidates;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(CustomTaskRepository.class);
+		ranker = new SeekerFeedRanker(repository, new SimpleMeterRegistry(),
+				0.35, 0.2, 0.15, 0.2, 0.1, 10, 500, 24, MAX_CANDIDATES);
+		seeker = User.builder()
+				.id("seeker-1")
+				.skills(List.of("Design", "Plumbing"))
+				.geoJsonPoint(new GeoJsonPoint(77.5946, 12.9716))
+				.build();
+
+		Random random = new Random(42);
+		String[] categories = {"Design", "Plumbing", "Writing", "Cleaning"};
+		candidates = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			boolean onsite = random.nextBoolean();
+			candidates.add(Task.builder()
+					.id(String.format("task-%03d", i))
+					.category(categories[random.nextInt(categories.length)])
+					.mode(onsite ? WorkMode.ONSITE : WorkMode.REMOTE)
+					.location(onsite ? new GeoJsonPoint(77.5946 + random.nextGaussian() * 0.05, 12.9716 + random.nextGaussian() * 0.05) : null)
+					.budget((double) random.nextInt(2000))
+					.postedOn(LocalDateTime.now().minusMinutes(random.nextInt(7 * 24 * 60)))
+					.bidsCount(random.nextInt(10))
+					.build());
+		}
+		// exact score ties, told apart by id
+		candidates.add(copyOf(candidates.get(0), "task-tie-b"));
+		candidates.add(copyOf(candidates.get(0), "task-tie-a"));
+		Collections.shuffle(candidates, random);
+
+		doAnswer(invocation -> {
+			Consumer<Task> consumer = invocation.getArgument(4);
+			candidates.forEach(consumer);
+			return (long) candidates.size();
+		}).when(repository).streamOpenTaskCandidates(any(), any(), anyDouble(), anyInt(), any());
+	}
+
+	@Test
+	void keepsTheTopKBestFirst() {
+		RankedPage page = ranker.rank(seeker, null, 10);
+
+		List<RankedTask> all = ranker.rank(seeker, cursorBeforeEverything(page), candidates.size()).tasks();
+		assertThat(page.tasks()).hasSize(10);
+		assertThat(page.tasks()).isEqualTo(all.subList(0, 10));
+		assertInRankingOrder(page.tasks());
+		verify(repository, atLeastOnce()).streamOpenTaskCandidates(
+				eq(Set.of("Design", "Plumbing")), eq(seeker.getGeoJsonPoint()), eq(10.0), eq(MAX_CANDIDATES), any());
+	}
+
+	@Test
+	void pagesThroughEveryCandidateOnceInRankingOrder() {
+		List<RankedTask> seen = new ArrayList<>();
+		PageCursor cursor = null;
+		RankedPage page;
+		do {
+			page = ranker.rank(seeker, cursor, 15);
+			seen.addAll(page.tasks());
+			if (!page.tasks().isEmpty()) {
+				RankedTask last = page.tasks().get(page.tasks().size() - 1);
+				// round-trip like a client would
+				cursor = PageCursor.decode(SeekerFeedRanker.cursorAfter(last, page.rankedAtMillis()).encode());
+			}
+		} while (!page.tasks().isEmpty());
+
+		assertThat(seen).extracting(ranked -> ranked.task().getId())
+				.doesNotHaveDuplicates()
+				.hasSize(candidates.size());
+		assertInRankingOrder(seen);
+	}
+
+	@Test
+	void laterPagesKeepTheFirstPagesRankingTime() {
+		RankedPage first = ranker.rank(seeker, null, 5);
+		RankedTask last = first.tasks().get(first.tasks().size() - 1);
+
+		RankedPage second = ranker.rank(seeker, SeekerFeedRanker.cursorAfter(last, first.rankedAtMillis()), 5);
+
+		assertThat(second.rankedAtMillis()).isEqualTo(first.rankedAtMillis());
+		assertThat(second.tasks()).allSatisfy(ranked -> assertThat(ranked.score()).isLessThanOrEqualTo(last.score()));
+	}
+
+	@Test
+	void breaksScoreTiesById() {
+		List<RankedTask> all = ranker.rank(seeker, null, candidates.size()).tasks();
+
+		List<String> tied = all.stream()
+				.filter(ranked -> ranked.task().getId().startsWith("task-tie-"))
+				.map(ranked -> ranked.task().getId())
+				.toList();
+		assertThat(tied).containsExactly("task-tie-a", "task-tie-b");
+	}
+
+	@Test
+	void rejectsCursorsFromOtherListings() {
+		assertThatThrownBy(() -> ranker.rank(seeker, new PageCursor("2026-10-18T06:05:26", "task-001"), 10))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid page cursor.");
+	}
+
+	private static PageCursor cursorBeforeEverything(RankedPage page) {
+		return new PageCursor(Double.MAX_VALUE + ":" + page.rankedAtMillis(), "");
+	}
+
+	private static void assertInRankingOrder(List<RankedTask> ranked) {
+		for (int i = 1; i < ranked.size(); i++) {
+			RankedTask previous = ranked.get(i - 1);
+			RankedTask current = ranked.get(i);
+			assertThat(previous.score() > current.score()
+					|| (previous.score() == current.score() && previous.task().getId().compareTo(current.task().getId()) < 0))
+					.as("%s before %s", previous, current)
+					.isTrue();
+		}
+	}
+
+	private static Task copyOf(Task task, String id) {
+		return Task.builder()
+				.id(id)
+				.category(task.getCategory())
+				.mode(task.getMode())
+				.location(task.getLocation())
+				.budget(task.getBudget())
+				.postedOn(task.getPostedOn())
+				.bidsCount(task.getBidsCount())
+				.build();
+	}
+}
@@ -0,0 +1,105 @@
+package com.snaptask.server.snaptask_server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoHashTest {
+
+	private static final double EARTH_RADIUS_KM = 6371.0088;
+
+	@Test
+	void encodesKnownPoints() {
+		assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+		assertThat(GeoHash.encode(0, 0, 5)).isEqualTo("s0000");
+		assertThat(GeoHash.encode(-90, -180, 3)).isEqualTo("000");
+	}
+
+	@Test
+	void shorterPrecisionIsAPrefix() {
+		String full = GeoHash.encode(12.9716, 77.5946, 9);
+
+		for (int precision = 1; precision < 9; precision++) {
+			assertThat(GeoHash.encode(12.9716, 77.5946, precision)).isEqualTo(full.substring(0, precision));
+		}
+	}
+
+	@Test
+	void normalizesLongitudeIntoRange() {
+		assertThat(GeoHash.encode(10, 190, 6)).isEqualTo(GeoHash.encode(10, -170, 6));
+		assertThat(GeoHash.encode(10, 180, 6)).isEqualTo(GeoHash.encode(10, -180, 6));
+		assertThat(GeoHash.encode(10, -540, 6)).isEqualTo(GeoHash.encode(10, -180, 6));
+	}
+
+	@Test
+	void coveringCellsContainEveryPointInTheCircle() {
+		double[][] centres = {
+				{12.9716, 77.5946},   // mid latitude
+				{0.0001, -0.0001},    // where all four quadrants meet
+				{64.1466, -21.9426},  // high latitude, wide cells in km
+				{-33.8688, 151.2093}  // southern hemisphere
+		};
+		for (double[] centre : centres) {
+			for (double radiusKm : new double[]{0.5, 5, 25}) {
+				assertCovered(centre[0], centre[1], radiusKm, 5);
+				assertCovered(centre[0], centre[1], radiusKm, 6);
+			}
+		}
+	}
+
+	@Test
+	void coveringCellsWrapAcrossTheAntimeridian() {
+		assertCovered(-17.7134, 179.98, 30, 5);
+		assertCovered(65.0, -179.97, 30, 5);
+
+		Set<String> cells = GeoHash.coveringCells(-17.7134, 179.98, 30, 5);
+		assertThat(cells).contains(GeoHash.encode(-17.7134, -179.9, 5));
+	}
+
+	@Test
+	void coveringCellsNearThePoleStayBounded() {
+		assertCovered(89.95, 45, 10, 4);
+
+		// the whole ring of cells at this latitude, not more
+		assertThat(GeoHash.coveringCells(89.95, 45, 10, 2)).hasSizeLessThanOrEqualTo(8 * 4);
+	}
+
+	@Test
+	void measuresGreatCircleDistance() {
+		// Paris to London
+		assertThat(GeoHash.distanceKm(48.8566, 2.3522, 51.5074, -0.1278)).isCloseTo(343.5, within(1.0));
+		assertThat(GeoHash.distanceKm(10, 20, 10, 20)).isZero();
+		// across the antimeridian is short, not half the globe
+		assertThat(GeoHash.distanceKm(0, 179.9, 0, -179.9)).isCloseTo(22.24, within(0.1));
+	}
+
+	private static void assertCovered(double latitude, double longitude, double radiusKm, int precision) {
+		Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm, precision);
+
+		for (int step = 0; step <= 8; step++) {
+			double distanceKm = radiusKm * step / 8;
+			for (int bearing = 0; bearing < 360; bearing += 15) {
+				double[] point = destination(latitude, longitude, distanceKm, bearing);
+				assertThat(cells)
+						.as("(%s, %s) at %s km, bearing %s, radius %s km, precision %s",
+								latitude, longitude, distanceKm, bearing, radiusKm, precision)
+						.contains(GeoHash.encode(point[0], point[1], precision));
+			}
+		}
+	}
+
+	private static double[] destination(double latitude, double longitude, double distanceKm, double bearingDegrees) {
+		double angular = distanceKm / EARTH_RADIUS_KM;
+		double bearing = Math.toRadians(bearingDegrees);
+		double lat1 = Math.toRadians(latitude);
+		double lon1 = Math.toRadians(longitude);
+
+		double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular) + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+		double lon2 = lon1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+				Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+		return new double[]{Math.toDegrees(lat2), Math.toDegrees(lon2)};
+	}
+}
@@ -0,0 +1,96 @@
+package com.snaptask.server.snaptask_server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+	@Test
+	void roundTripsThroughItsEncoding() {
+		PageCursor cursor = new PageCursor("2026-10-18T06:05:26.123", "6710a1b2c3d4e5f601234567");
+
+		PageCursor decoded = PageCursor.decode(cursor.encode());
+
+		assertThat(decoded).isEqualTo(cursor);
+		assertThat(decoded.sortValueAsDateTime()).isEqualTo(LocalDateTime.of(2026, 10, 18, 6, 5, 26, 123_000_000));
+	}
+
+	@Test
+	void roundTripsInstantSortValues() {
+		Instant createdAt = Instant.parse("2026-10-18T06:05:26.123Z");
+
+		PageCursor decoded = PageCursor.decode(new PageCursor(createdAt.toString(), "6710a1b2c3d4e5f601234567").encode());
+
+		assertThat(decoded.sortValueAsInstant()).isEqualTo(createdAt);
+	}
+
+	@Test
+	void readsNumericSortValues() {
+		PageCursor decoded = PageCursor.decode(new PageCursor(String.valueOf(1234.5), "abc").encode());
+
+		assertThat(decoded.sortValueAsDouble()).isEqualTo(1234.5);
+		assertThatThrownBy(new PageCursor("2026-10-18T06:05:26", "abc")::sortValueAsDouble)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid page cursor.");
+	}
+
+	@Test
+	void encodingIsUrlSafe() {
+		String encoded = new PageCursor("??>>~~", "id").encode();
+
+		assertThat(encoded).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	void splitsOnTheLastSeparatorSoSortValuesMayContainIt() {
+		PageCursor decoded = PageCursor.decode(new PageCursor("0.5|1700000000000", "abc").encode());
+
+		assertThat(decoded.sortValue()).isEqualTo("0.5|1700000000000");
+		assertThat(decoded.id()).isEqualTo("abc");
+	}
+
+	@Test
+	void missingCursorMeansFirstPage() {
+		assertThat(PageCursor.decode(null)).isNull();
+		assertThat(PageCursor.decode("  ")).isNull();
+	}
+
+	@Test
+	void rejectsCursorsThatAreNotBase64() {
+		assertThatThrownBy(() -> PageCursor.decode("not a cursor!"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid page cursor.");
+	}
+
+	@Test
+	void rejectsCursorsWithoutBothParts() {
+		for (String raw : new String[]{"no-separator", "|id-only", "sort-only|"}) {
+			String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+			assertThatThrownBy(() -> PageCursor.decode(encoded))
+					.as(raw)
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("Invalid page cursor.");
+		}
+	}
+
+	@Test
+	void rejectsSortValuesFromAnotherListing() {
+		// e.g. a distance cursor from the nearby feed replayed against a posted_on ordered feed
+		PageCursor foreign = PageCursor.decode(new PageCursor("1234.5", "abc").encode());
+
+		assertThatThrownBy(foreign::sortValueAsDateTime)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid page cursor.");
+		assertThatThrownBy(foreign::sortValueAsInstant)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid page cursor.");
+	}
+}